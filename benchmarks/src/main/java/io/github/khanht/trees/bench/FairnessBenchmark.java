@@ -0,0 +1,152 @@
+package io.github.khanht.trees.bench;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import io.github.khanht.trees.Entry;
+import io.github.khanht.trees.FairPriorityQueue;
+import io.github.khanht.trees.LinkedHeapPriorityQueue;
+import io.github.khanht.trees.PriorityQueue;
+import java.util.Random;
+
+/**
+ * A benchmark of FairPriorityQueue against a single shared heap, with work
+ * from many tenants of which one is noisy. Each entry is keyed by its
+ * arrival, so the shared heap serves first come, first served; every entry
+ * served is replaced by a new arrival, from the noisy tenant with the given
+ * probability and otherwise from a uniformly random quiet tenant. The
+ * number of pending entries therefore stays fixed.
+ * <p>
+ * Besides throughput, it reports the noisy tenant's share of service and
+ * the mean number of operations that quiet and noisy entries waited. The
+ * shared heap makes everyone wait behind the noisy backlog; the fair queue
+ * confines the wait to the noisy tenant.
+ * <p>
+ * Arguments are optional settings of the form name=value[,value...]:
+ * impls (SHARED, FAIR), tenants, sizes (pending entries), ops (served per
+ * iteration), noisy (probability an arrival is noisy), weight (of the noisy
+ * tenant), warmup (iterations) and iterations. For example:
+ * {@code impls=FAIR tenants=100000 noisy=0.9 weight=4}
+ */
+public class FairnessBenchmark {
+
+    /** The number of precomputed arrivals, a power of two. */
+    private static final int ARRIVALS = 1 << 16;
+    /** The tenant of the noisy arrivals. */
+    private static final int NOISY = 0;
+
+    /** The implementations compared. */
+    enum Impl { SHARED, FAIR }
+
+    /** Defeats dead-code elimination of measured results. */
+    static volatile long sink;
+
+    /** Draws the tenants of arrivals, the same for every implementation. */
+    private static int[] arrivals(Random random, int tenants, double noisy) {
+        int[] arrivals = new int[ARRIVALS];
+        for (int i = 0; i < ARRIVALS; i++)
+            arrivals[i] = (tenants == 1 || random.nextDouble() < noisy
+                           ? NOISY : 1 + random.nextInt(tenants - 1));
+        return arrivals;
+    }
+
+    /** Fills a queue with n arrivals, keyed by their order of arrival. */
+    private static PriorityQueue<Long,Integer> prepare(Impl impl, int n,
+                                                       int[] arrivals,
+                                                       double weight) {
+        PriorityQueue<Long,Integer> queue;
+        if (impl == Impl.FAIR) {
+            FairPriorityQueue<Long,Integer> fair =
+                                        new FairPriorityQueue<>(v -> v);
+            fair.setWeight(NOISY, weight);
+            queue = fair;
+        }
+        else
+            queue = new LinkedHeapPriorityQueue<>();
+        for (int i = 0; i < n; i++)
+            queue.insert((long) i, arrivals[i & (ARRIVALS - 1)]);
+        return queue;
+    }
+
+    /**
+     * Serves the given number of entries, replacing each with a new arrival
+     * @param stats  receives the number of noisy entries served and the
+     *               operations waited by quiet and by noisy entries
+     * @return the nanoseconds taken
+     */
+    private static long run(PriorityQueue<Long,Integer> queue, int ops,
+                            int[] arrivals, long[] stats) {
+        long clock = queue.size();
+        long noisyServed = 0, quietWait = 0, noisyWait = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            Entry<Long,Integer> e = queue.removeMin();
+            long waited = clock - e.getKey();
+            if (e.getValue() == NOISY) {
+                noisyServed++;
+                noisyWait += waited;
+            }
+            else
+                quietWait += waited;
+            queue.insert(clock, arrivals[(int) clock & (ARRIVALS - 1)]);
+            clock++;
+        }
+        long nanos = System.nanoTime() - start;
+        stats[0] = noisyServed;
+        stats[1] = quietWait;
+        stats[2] = noisyWait;
+        sink ^= queue.size();
+        return nanos;
+    }
+
+    /** Parses the comma-separated values of the setting name (if given). */
+    private static String[] setting(String[] args, String name, String dflt) {
+        for (String arg : args)
+            if (arg.startsWith(name + "="))
+                return arg.substring(name.length() + 1).split(",");
+        return dflt.split(",");
+    }
+
+    public static void main(String[] args) {
+        String[] impls = setting(args, "impls", "SHARED,FAIR");
+        int tenants = Integer.parseInt(setting(args, "tenants", "10000")[0]);
+        String[] sizes = setting(args, "sizes", "100000,1000000");
+        int ops = Integer.parseInt(setting(args, "ops", "2000000")[0]);
+        double noisy = Double.parseDouble(setting(args, "noisy", "0.5")[0]);
+        double weight = Double.parseDouble(setting(args, "weight", "1")[0]);
+        int warmup = Integer.parseInt(setting(args, "warmup", "2")[0]);
+        int iterations = Integer.parseInt(setting(args, "iterations", "3")[0]);
+        int[] arrivals = arrivals(new Random(42), tenants, noisy);
+
+        System.out.printf("%-8s %8s %9s %12s %8s %12s %12s%n",
+                "impl", "tenants", "pending", "ops/s", "noisy %",
+                "quiet wait", "noisy wait");
+        long[] stats = new long[3];
+        for (String size : sizes) {
+            int n = Integer.parseInt(size);
+            for (String impl : impls) {
+                Impl i = Impl.valueOf(impl);
+                for (int w = 0; w < warmup; w++)
+                    run(prepare(i, n, arrivals, weight), ops, arrivals, stats);
+                long nanos = 0, noisyServed = 0, quietWait = 0, noisyWait = 0;
+                for (int it = 0; it < iterations; it++) {
+                    PriorityQueue<Long,Integer> queue =
+                                        prepare(i, n, arrivals, weight);
+                    System.gc();
+                    nanos += run(queue, ops, arrivals, stats);
+                    noisyServed += stats[0];
+                    quietWait += stats[1];
+                    noisyWait += stats[2];
+                }
+                double served = (double) ops * iterations;
+                long quietServed = (long) served - noisyServed;
+                System.out.printf("%-8s %8d %9d %12.0f %8.1f %12.1f %12.1f%n",
+                        impl, tenants, n, served * 1e9 / nanos,
+                        100 * noisyServed / served,
+                        quietServed == 0 ? 0.0 : (double) quietWait / quietServed,
+                        noisyServed == 0 ? 0.0 : (double) noisyWait / noisyServed);
+            }
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package io.github.khanht.trees.bench;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import io.github.khanht.trees.AbstractPriorityQueue;
+import io.github.khanht.trees.ArrayHeapPriorityQueue;
+import io.github.khanht.trees.DaryHeapPriorityQueue;
+import io.github.khanht.trees.Entry;
+import io.github.khanht.trees.HeapAdaptablePriorityQueue;
+import io.github.khanht.trees.LinkedHeapPriorityQueue;
+import io.github.khanht.trees.MinMaxHeapPriorityQueue;
+import io.github.khanht.trees.PairingHeapPriorityQueue;
+import io.github.khanht.trees.PriorityQueue;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A self-contained benchmark harness for the priority queue implementations.
+ * For every combination of implementation, workload, key distribution and
+ * size it reports throughput, sampled per-operation latency percentiles and
+ * the bytes allocated per operation by the measuring thread (the equivalent
+ * of JMH's gc.alloc.rate.norm).
+ * <p>
+ * Arguments are optional settings of the form name=value[,value...]:
+ * impls, workloads, dists, sizes, warmup (iterations) and iterations.
+ * For example: {@code impls=ARRAY workloads=HOLD sizes=1000,1000000}
+ */
+public class PriorityQueueBenchmark {
+
+    /** Operations measured per iteration for small sizes, by repetition. */
+    private static final int MIN_OPS_PER_ITERATION = 1_000_000;
+    /** Maximum number of latency samples kept per measurement. */
+    private static final int MAX_SAMPLES = 1_000_000;
+
+    //---------------- nested Subject class ----------------
+    /** An implementation under test, with its empty and bulk constructors. */
+    private static class Subject {
+        final String name;
+        final Supplier<PriorityQueue<Integer,Integer>> empty;
+        final Function<List<Entry<Integer,Integer>>,
+                       PriorityQueue<Integer,Integer>> bulk;
+        Subject(String name, Supplier<PriorityQueue<Integer,Integer>> empty,
+                Function<List<Entry<Integer,Integer>>,
+                         PriorityQueue<Integer,Integer>> bulk) {
+            this.name = name;
+            this.empty = empty;
+            this.bulk = bulk;
+        }
+    }
+    //----------- end of nested Subject class -----------
+
+    /** Returns every implementation that can be benchmarked, by name. */
+    private static Map<String,Subject> subjects() {
+        Map<String,Subject> subjects = new LinkedHashMap<>();
+        add(subjects, new Subject("LINKED",
+                LinkedHeapPriorityQueue::new, LinkedHeapPriorityQueue::new));
+        add(subjects, new Subject("ARRAY",
+                ArrayHeapPriorityQueue::new, ArrayHeapPriorityQueue::new));
+        add(subjects, new Subject("ADAPTABLE",
+                HeapAdaptablePriorityQueue::new, HeapAdaptablePriorityQueue::new));
+        for (int arity : new int[] {4, 8})
+            add(subjects, new Subject("DARY" + arity,
+                    () -> new DaryHeapPriorityQueue<>(arity),
+                    entries -> new DaryHeapPriorityQueue<>(arity, entries)));
+        add(subjects, new Subject("PAIRING",
+                PairingHeapPriorityQueue::new, PairingHeapPriorityQueue::new));
+        add(subjects, new Subject("MINMAX",
+                MinMaxHeapPriorityQueue::new,
+                entries -> {
+                    MinMaxHeapPriorityQueue<Integer,Integer> q =
+                                            new MinMaxHeapPriorityQueue<>();
+                    q.addAll(entries);
+                    return q;
+                }));
+        add(subjects, new Subject("LINKED_STABLE",
+                () -> stable(new LinkedHeapPriorityQueue<>()),
+                entries -> {
+                    LinkedHeapPriorityQueue<Integer,Integer> q =
+                                    stable(new LinkedHeapPriorityQueue<>());
+                    q.addAll(entries);
+                    return q;
+                }));
+        add(subjects, new Subject("LINKED_RECYCLING",
+                () -> recycling(new LinkedHeapPriorityQueue<>()),
+                entries -> {
+                    LinkedHeapPriorityQueue<Integer,Integer> q =
+                                recycling(new LinkedHeapPriorityQueue<>());
+                    q.addAll(entries);
+                    return q;
+                }));
+        add(subjects, new Subject("LINKED_SORTKEY",
+                () -> withSortKey(new LinkedHeapPriorityQueue<>()),
+                entries -> {
+                    LinkedHeapPriorityQueue<Integer,Integer> q =
+                                withSortKey(new LinkedHeapPriorityQueue<>());
+                    q.addAll(entries);
+                    return q;
+                }));
+        add(subjects, new Subject("ARRAY_SORTKEY",
+                () -> withSortKey(new ArrayHeapPriorityQueue<>()),
+                entries -> {
+                    ArrayHeapPriorityQueue<Integer,Integer> q =
+                                withSortKey(new ArrayHeapPriorityQueue<>());
+                    q.addAll(entries);
+                    return q;
+                }));
+        return subjects;
+    }
+
+    /** Makes a queue order equal keys by insertion. */
+    private static <Q extends AbstractPriorityQueue<Integer,Integer>> Q
+                                                    stable(Q queue) {
+        queue.setStable(true);
+        return queue;
+    }
+
+    /** Makes a linked heap reuse the nodes and entries it removes. */
+    private static LinkedHeapPriorityQueue<Integer,Integer>
+                recycling(LinkedHeapPriorityQueue<Integer,Integer> queue) {
+        queue.setRecycling(true);
+        return queue;
+    }
+
+    /** Makes a queue compare cached long sort keys of its Integer keys. */
+    private static <Q extends AbstractPriorityQueue<Integer,Integer>> Q
+                                                    withSortKey(Q queue) {
+        queue.setSortKey(key -> key);
+        return queue;
+    }
+
+    private static void add(Map<String,Subject> subjects, Subject s) {
+        subjects.put(s.name, s);
+    }
+
+    //---------------- nested Latencies class ----------------
+    /** Evenly spaced samples of per-operation latency, in nanoseconds. */
+    private static class Latencies {
+        private final long[] samples;
+        private final long stride;
+        private int count = 0;
+        private long seen = 0;
+        Latencies(long expectedOps) {
+            stride = Math.max(1, (expectedOps + MAX_SAMPLES - 1) / MAX_SAMPLES);
+            samples = new long[(int) Math.min(MAX_SAMPLES, expectedOps)];
+        }
+        void record(long nanos) {
+            if (seen++ % stride == 0 && count < samples.length)
+                samples[count++] = nanos;
+        }
+        long percentile(double p) {
+            if (count == 0) return 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(count - 1, Math.ceil(p * count) - 1)];
+        }
+    }
+    //----------- end of nested Latencies class -----------
+
+    /** The distributions keys are drawn from. */
+    enum Distribution {
+        RANDOM, ASCENDING, DESCENDING, DUPLICATES;
+
+        Integer[] keys(int n, Random random) {
+            Integer[] keys = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                switch (this) {
+                    case ASCENDING:  keys[i] = i; break;
+                    case DESCENDING: keys[i] = n - i; break;
+                    case DUPLICATES: keys[i] = random.nextInt(16); break;
+                    default:         keys[i] = random.nextInt(); break;
+                }
+            }
+            return keys;
+        }
+    }
+
+    /** The operations measured, each counting n operations per queue. */
+    enum Workload {
+        /** n inserts into an empty queue. */
+        INSERT {
+            PriorityQueue<Integer,Integer> prepare(Subject s, Integer[] keys) {
+                return s.empty.get();
+            }
+            void run(Subject s, PriorityQueue<Integer,Integer> q, Integer[] keys,
+                     List<Entry<Integer,Integer>> entries, Latencies latencies) {
+                for (int i = 0; i < keys.length; i++) {
+                    long start = (latencies == null ? 0 : System.nanoTime());
+                    q.insert(keys[i], i);
+                    if (latencies != null)
+                        latencies.record(System.nanoTime() - start);
+                }
+            }
+        },
+        /** n removeMin calls emptying a full queue. */
+        REMOVE_MIN {
+            void run(Subject s, PriorityQueue<Integer,Integer> q, Integer[] keys,
+                     List<Entry<Integer,Integer>> entries, Latencies latencies) {
+                for (int i = 0; i < keys.length; i++) {
+                    long start = (latencies == null ? 0 : System.nanoTime());
+                    sink ^= q.removeMin().getValue();
+                    if (latencies != null)
+                        latencies.record(System.nanoTime() - start);
+                }
+            }
+        },
+        /** n min calls on a full queue. */
+        MIN {
+            void run(Subject s, PriorityQueue<Integer,Integer> q, Integer[] keys,
+                     List<Entry<Integer,Integer>> entries, Latencies latencies) {
+                for (int i = 0; i < keys.length; i++) {
+                    long start = (latencies == null ? 0 : System.nanoTime());
+                    sink ^= q.min().getValue();
+                    if (latencies != null)
+                        latencies.record(System.nanoTime() - start);
+                }
+            }
+        },
+        /**
+         * The classic hold model: n times, remove the minimum and insert it
+         * again with its key advanced by a key of the distribution.
+         */
+        HOLD {
+            void run(Subject s, PriorityQueue<Integer,Integer> q, Integer[] keys,
+                     List<Entry<Integer,Integer>> entries, Latencies latencies) {
+                for (int i = 0; i < keys.length; i++) {
+                    long start = (latencies == null ? 0 : System.nanoTime());
+                    Entry<Integer,Integer> e = q.removeMin();
+                    q.insert(e.getKey() + (keys[i] & 0xffff), e.getValue());
+                    if (latencies != null)
+                        latencies.record(System.nanoTime() - start);
+                }
+            }
+        },
+        /** Bulk construction of a queue of n entries. */
+        BULK {
+            /** Nothing to prepare: run builds the queue itself. */
+            PriorityQueue<Integer,Integer> prepare(Subject s, Integer[] keys) {
+                return null;
+            }
+            void run(Subject s, PriorityQueue<Integer,Integer> q, Integer[] keys,
+                     List<Entry<Integer,Integer>> entries, Latencies latencies) {
+                long start = (latencies == null ? 0 : System.nanoTime());
+                sink ^= s.bulk.apply(entries).size();
+                if (latencies != null)
+                    latencies.record((System.nanoTime() - start) / keys.length);
+            }
+        },
+        /** A sorted drain of a full queue through drainTo. */
+        DRAIN {
+            void run(Subject s, PriorityQueue<Integer,Integer> q, Integer[] keys,
+                     List<Entry<Integer,Integer>> entries, Latencies latencies) {
+                List<Entry<Integer,Integer>> out = new ArrayList<>(keys.length);
+                long start = (latencies == null ? 0 : System.nanoTime());
+                q.drainTo(out, keys.length);
+                if (latencies != null)
+                    latencies.record((System.nanoTime() - start) / keys.length);
+                sink ^= out.size();
+            }
+        };
+
+        /** Builds the queue the workload runs against (not measured). */
+        PriorityQueue<Integer,Integer> prepare(Subject s, Integer[] keys) {
+            PriorityQueue<Integer,Integer> q = s.empty.get();
+            for (int i = 0; i < keys.length; i++)
+                q.insert(keys[i], i);
+            return q;
+        }
+
+        /**
+         * Runs the measured operations on a prepared queue, timing each if
+         * latencies is given; entries holds the keys paired with their
+         * indices, for building queues in bulk
+         */
+        abstract void run(Subject s, PriorityQueue<Integer,Integer> q,
+                          Integer[] keys, List<Entry<Integer,Integer>> entries,
+                          Latencies latencies);
+    }
+
+    /** Defeats dead-code elimination of measured results. */
+    static volatile int sink;
+
+    /** Per-thread allocation counter, or null if the JVM has none. */
+    private static final com.sun.management.ThreadMXBean THREADS =
+                                                        allocationCounter();
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean bean =
+                                    ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean threads =
+                                    (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) return null;
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    private static long allocatedBytes() {
+        if (THREADS == null) return 0;
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    //---------------- nested Result class ----------------
+    /** Measurements of one iteration. */
+    private static class Result {
+        long ops;
+        long nanos;
+        long bytes;
+    }
+    //----------- end of nested Result class -----------
+
+    //---------------- nested Pair class ----------------
+    /** A key-value pair to bulk-build queues from. */
+    private static class Pair implements Entry<Integer,Integer> {
+        private final Integer k, v;
+        Pair(Integer key, Integer value) { k = key; v = value; }
+        public Integer getKey() { return k; }
+        public Integer getValue() { return v; }
+    }
+    //----------- end of nested Pair class -----------
+
+    /**
+     * Runs one iteration of a workload: enough repetitions of it on freshly
+     * prepared queues to reach MIN_OPS_PER_ITERATION operations
+     */
+    private static Result iteration(Subject s, Workload w, Integer[] keys,
+                                    List<Entry<Integer,Integer>> entries,
+                                    Latencies latencies) {
+        int reps = Math.max(1, MIN_OPS_PER_ITERATION / keys.length);
+        List<PriorityQueue<Integer,Integer>> queues = new ArrayList<>(reps);
+        for (int r = 0; r < reps; r++)
+            queues.add(w.prepare(s, keys));
+        Result result = new Result();
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int r = 0; r < reps; r++)
+            w.run(s, queues.get(r), keys, entries, latencies);
+        result.nanos = System.nanoTime() - start;
+        result.bytes = allocatedBytes() - bytes;
+        result.ops = (long) reps * keys.length;
+        return result;
+    }
+
+    /** Parses the comma-separated values of the setting name (if given). */
+    private static String[] setting(String[] args, String name, String dflt) {
+        for (String arg : args)
+            if (arg.startsWith(name + "="))
+                return arg.substring(name.length() + 1).split(",");
+        return dflt.split(",");
+    }
+
+    public static void main(String[] args) {
+        Map<String,Subject> all = subjects();
+        String[] impls = setting(args, "impls", String.join(",", all.keySet()));
+        String[] workloads = setting(args, "workloads",
+                            "INSERT,REMOVE_MIN,MIN,HOLD,BULK,DRAIN");
+        String[] dists = setting(args, "dists",
+                            "RANDOM,ASCENDING,DESCENDING,DUPLICATES");
+        String[] sizes = setting(args, "sizes",
+                            "10,100,1000,10000,100000,1000000,10000000");
+        int warmup = Integer.parseInt(setting(args, "warmup", "3")[0]);
+        int iterations = Integer.parseInt(setting(args, "iterations", "5")[0]);
+
+        System.out.printf("%-16s %-10s %-10s %9s %14s %8s %8s %8s %9s%n",
+                "impl", "workload", "keys", "size", "ops/s",
+                "p50 ns", "p99 ns", "p99.9 ns", "B/op");
+        for (String impl : impls) {
+            Subject s = all.get(impl);
+            if (s == null)
+                throw new IllegalArgumentException("Unknown impl " + impl);
+            for (String workload : workloads) {
+                Workload w = Workload.valueOf(workload);
+                for (String dist : dists) {
+                    Distribution d = Distribution.valueOf(dist);
+                    for (String size : sizes) {
+                        int n = Integer.parseInt(size);
+                        Integer[] keys = d.keys(n, new Random(42));
+                        List<Entry<Integer,Integer>> entries = new ArrayList<>(n);
+                        for (int i = 0; i < n; i++)
+                            entries.add(new Pair(keys[i], i));
+                        for (int i = 0; i < warmup; i++)
+                            iteration(s, w, keys, entries, null);
+                        long ops = 0, nanos = 0, bytes = 0;
+                        for (int i = 0; i < iterations; i++) {
+                            System.gc();
+                            Result r = iteration(s, w, keys, entries, null);
+                            ops += r.ops;
+                            nanos += r.nanos;
+                            bytes += r.bytes;
+                        }
+                        Latencies latencies = new Latencies(
+                                Math.max(n, MIN_OPS_PER_ITERATION));
+                        iteration(s, w, keys, entries, latencies);
+                        System.out.printf(
+                                "%-16s %-10s %-10s %9d %14.0f %8d %8d %8d %9.1f%n",
+                                impl, workload, dist, n, ops * 1e9 / nanos,
+                                latencies.percentile(0.50),
+                                latencies.percentile(0.99),
+                                latencies.percentile(0.999),
+                                (double) bytes / ops);
+                    }
+                }
+            }
+        }
+    }
+}
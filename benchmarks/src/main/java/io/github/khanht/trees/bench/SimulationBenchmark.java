@@ -0,0 +1,140 @@
+package io.github.khanht.trees.bench;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import io.github.khanht.trees.ArrayHeapPriorityQueue;
+import io.github.khanht.trees.Entry;
+import io.github.khanht.trees.LinkedHeapPriorityQueue;
+import io.github.khanht.trees.PairingHeapPriorityQueue;
+import io.github.khanht.trees.PriorityQueue;
+import io.github.khanht.trees.RadixHeapPriorityQueue;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * A discrete-event simulation benchmark of the priority queues as event
+ * lists, scaled up from the standby demos. Every pending passenger has one
+ * event keyed by its time in ticks: a check-in, which schedules the
+ * passenger's boarding after a random wait, or a boarding, which schedules
+ * the check-in of the next passenger after a random gap. The number of
+ * pending events therefore stays fixed while the simulation runs, and event
+ * times only ever increase, as the monotone RadixHeapPriorityQueue requires.
+ * <p>
+ * Arguments are optional settings of the form name=value[,value...]:
+ * impls (LINKED, ARRAY, PAIRING, RADIX), sizes (pending events), events
+ * (processed per iteration), warmup (iterations) and iterations. For
+ * example: {@code impls=LINKED,RADIX sizes=1000000 events=10000000}
+ */
+public class SimulationBenchmark {
+
+    /** The number of precomputed random delays, a power of two. */
+    private static final int DELAYS = 1 << 16;
+    /** The mean delay between events of a passenger, in ticks. */
+    private static final double MEAN_DELAY = 1000;
+
+    /** The implementations compared. */
+    enum Impl {
+        LINKED(LinkedHeapPriorityQueue::new),
+        ARRAY(ArrayHeapPriorityQueue::new),
+        PAIRING(PairingHeapPriorityQueue::new),
+        RADIX(RadixHeapPriorityQueue::new);
+
+        final Supplier<PriorityQueue<Long,Integer>> empty;
+        Impl(Supplier<PriorityQueue<Long,Integer>> empty) { this.empty = empty; }
+    }
+
+    /** Defeats dead-code elimination of measured results. */
+    static volatile long sink;
+
+    /**
+     * Draws exponentially distributed delays, so that the same sequence is
+     * used for every implementation and no random numbers are drawn while
+     * measuring
+     */
+    private static long[] delays(Random random) {
+        long[] delays = new long[DELAYS];
+        for (int i = 0; i < DELAYS; i++)
+            delays[i] = 1 + (long) (-MEAN_DELAY * Math.log(1 - random.nextDouble()));
+        return delays;
+    }
+
+    /**
+     * Fills a queue with the first check-in of each of n passengers, spread
+     * over the first n mean gaps
+     */
+    private static PriorityQueue<Long,Integer> prepare(Impl impl, int n,
+                                                       long[] delays) {
+        PriorityQueue<Long,Integer> events = impl.empty.get();
+        long time = 0;
+        for (int p = 0; p < n; p++) {
+            time += delays[p & (DELAYS - 1)] / 8;
+            events.insert(time, 2*p);                // even values check in
+        }
+        return events;
+    }
+
+    /**
+     * Processes the given number of events
+     * @return the nanoseconds taken
+     */
+    private static long simulate(PriorityQueue<Long,Integer> events, int count,
+                                 long[] delays) {
+        int next = events.size();                   // the next new passenger
+        long boarded = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            Entry<Long,Integer> e = events.removeMin();
+            long delay = delays[i & (DELAYS - 1)];
+            int value = e.getValue();
+            if ((value & 1) == 0)                   // checked in; board later
+                events.insert(e.getKey() + delay, value + 1);
+            else {                                  // boarded; next passenger
+                boarded++;
+                events.insert(e.getKey() + delay / 8, 2 * next++);
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        sink ^= boarded + events.size();
+        return nanos;
+    }
+
+    /** Parses the comma-separated values of the setting name (if given). */
+    private static String[] setting(String[] args, String name, String dflt) {
+        for (String arg : args)
+            if (arg.startsWith(name + "="))
+                return arg.substring(name.length() + 1).split(",");
+        return dflt.split(",");
+    }
+
+    public static void main(String[] args) {
+        String[] impls = setting(args, "impls", "LINKED,ARRAY,PAIRING,RADIX");
+        String[] sizes = setting(args, "sizes", "1000,100000,1000000");
+        int count = Integer.parseInt(setting(args, "events", "5000000")[0]);
+        int warmup = Integer.parseInt(setting(args, "warmup", "2")[0]);
+        int iterations = Integer.parseInt(setting(args, "iterations", "3")[0]);
+        long[] delays = delays(new Random(42));
+
+        System.out.printf("%-8s %9s %10s %14s %10s%n",
+                "impl", "pending", "events", "events/s", "ns/event");
+        for (String size : sizes) {
+            int n = Integer.parseInt(size);
+            for (String impl : impls) {
+                Impl i = Impl.valueOf(impl);
+                for (int w = 0; w < warmup; w++)
+                    simulate(prepare(i, n, delays), count, delays);
+                long nanos = 0;
+                for (int it = 0; it < iterations; it++) {
+                    PriorityQueue<Long,Integer> events = prepare(i, n, delays);
+                    System.gc();
+                    nanos += simulate(events, count, delays);
+                }
+                double processed = (double) count * iterations;
+                System.out.printf("%-8s %9d %10d %14.0f %10.1f%n",
+                        impl, n, count, processed * 1e9 / nanos,
+                        nanos / processed);
+            }
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package io.github.khanht.trees.bench;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import io.github.khanht.trees.ArrayBinaryTree;
+import io.github.khanht.trees.BinaryTree;
+import io.github.khanht.trees.LinkedBinaryTree;
+import io.github.khanht.trees.Position;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A self-contained benchmark comparing the linked and array-based binary
+ * trees. For every combination of implementation, shape and size it
+ * reports the time to build the tree, the heap retained per node (not
+ * counting the elements, which both share), the
+ * time per node of iterating the elements and of preorder, inorder and
+ * breadth-first walks over the positions, and the time and bytes allocated
+ * per operation of churn: removing a leaf and adding it back, n times.
+ * <p>
+ * Arguments are optional settings of the form name=value[,value...]:
+ * impls (LINKED, LINKED_RECYCLING, ARRAY), shapes (COMPLETE, RANDOM), sizes, warmup
+ * (iterations) and iterations. For example: {@code impls=ARRAY sizes=1000000}
+ */
+public class TreeBenchmark {
+
+    //---------------- nested Builder classes ----------------
+    /** Adds nodes to an empty tree of one implementation. */
+    private interface Builder {
+        BinaryTree<Integer> create(int capacity);
+        Position<Integer> addRoot(BinaryTree<Integer> t, Integer e);
+        Position<Integer> addLeft(BinaryTree<Integer> t, Position<Integer> p,
+                                  Integer e);
+        Position<Integer> addRight(BinaryTree<Integer> t, Position<Integer> p,
+                                   Integer e);
+        Integer remove(BinaryTree<Integer> t, Position<Integer> p);
+    }
+
+    /** Builds linked trees, optionally recycling their nodes. */
+    private static class LinkedBuilder implements Builder {
+        private final boolean recycling;
+        LinkedBuilder(boolean recycling) { this.recycling = recycling; }
+        public BinaryTree<Integer> create(int capacity) {
+            LinkedBinaryTree<Integer> tree = new LinkedBinaryTree<>();
+            tree.setRecycling(recycling);
+            return tree;
+        }
+        public Position<Integer> addRoot(BinaryTree<Integer> t, Integer e) {
+            return ((LinkedBinaryTree<Integer>) t).addRoot(e);
+        }
+        public Position<Integer> addLeft(BinaryTree<Integer> t,
+                                         Position<Integer> p, Integer e) {
+            return ((LinkedBinaryTree<Integer>) t).addLeft(p, e);
+        }
+        public Position<Integer> addRight(BinaryTree<Integer> t,
+                                          Position<Integer> p, Integer e) {
+            return ((LinkedBinaryTree<Integer>) t).addRight(p, e);
+        }
+        public Integer remove(BinaryTree<Integer> t, Position<Integer> p) {
+            return ((LinkedBinaryTree<Integer>) t).remove(p);
+        }
+    }
+    //----------- end of nested Builder classes -----------
+
+    /** The implementations compared. */
+    enum Impl {
+        LINKED(new LinkedBuilder(false)),
+        LINKED_RECYCLING(new LinkedBuilder(true)),
+        ARRAY(new Builder() {
+            public BinaryTree<Integer> create(int capacity) {
+                return new ArrayBinaryTree<>(capacity);
+            }
+            public Position<Integer> addRoot(BinaryTree<Integer> t, Integer e) {
+                return ((ArrayBinaryTree<Integer>) t).addRoot(e);
+            }
+            public Position<Integer> addLeft(BinaryTree<Integer> t,
+                                             Position<Integer> p, Integer e) {
+                return ((ArrayBinaryTree<Integer>) t).addLeft(p, e);
+            }
+            public Position<Integer> addRight(BinaryTree<Integer> t,
+                                              Position<Integer> p, Integer e) {
+                return ((ArrayBinaryTree<Integer>) t).addRight(p, e);
+            }
+            public Integer remove(BinaryTree<Integer> t, Position<Integer> p) {
+                return ((ArrayBinaryTree<Integer>) t).remove(p);
+            }
+        });
+
+        final Builder builder;
+        Impl(Builder builder) { this.builder = builder; }
+    }
+
+    /** The shapes of tree built. */
+    enum Shape {
+        /** A complete tree, filled level by level. */
+        COMPLETE,
+        /** The shape of a binary search tree built from random keys. */
+        RANDOM;
+
+        /**
+         * Plans a tree of n nodes in which node i (after the root) is a
+         * child of an earlier node
+         * @param parent  receives the parent of each node
+         * @param isLeft  receives whether each node is a left child
+         */
+        void plan(int[] parent, boolean[] isLeft, Random random) {
+            int n = parent.length;
+            if (this == COMPLETE) {
+                for (int i = 1; i < n; i++) {
+                    parent[i] = (i - 1) / 2;
+                    isLeft[i] = (i % 2 == 1);
+                }
+                return;
+            }
+            int[] key = new int[n];
+            int[] left = new int[n];
+            int[] right = new int[n];
+            Arrays.fill(left, -1);
+            Arrays.fill(right, -1);
+            for (int i = 0; i < n; i++) {
+                key[i] = random.nextInt();
+                if (i == 0) continue;
+                int j = 0;
+                while (true) {
+                    if (key[i] < key[j]) {
+                        if (left[j] < 0) { left[j] = i; isLeft[i] = true; break; }
+                        j = left[j];
+                    }
+                    else {
+                        if (right[j] < 0) { right[j] = i; isLeft[i] = false; break; }
+                        j = right[j];
+                    }
+                }
+                parent[i] = j;
+            }
+        }
+    }
+
+    /** Defeats dead-code elimination of measured results. */
+    static volatile long sink;
+
+    /** Creates an array of n positions. */
+    @SuppressWarnings("unchecked")
+    private static Position<Integer>[] newPositions(int n) {
+        return (Position<Integer>[]) new Position<?>[n];
+    }
+
+    /** Builds a tree of the given elements following a plan. */
+    private static BinaryTree<Integer> build(Impl impl, Integer[] elements,
+                                             int[] parent, boolean[] isLeft) {
+        int n = parent.length;
+        Builder b = impl.builder;
+        BinaryTree<Integer> tree = b.create(n);
+        Position<Integer>[] positions = newPositions(n);
+        for (int i = 0; i < n; i++) {
+            if (i == 0)
+                positions[i] = b.addRoot(tree, elements[i]);
+            else if (isLeft[i])
+                positions[i] = b.addLeft(tree, positions[parent[i]], elements[i]);
+            else
+                positions[i] = b.addRight(tree, positions[parent[i]], elements[i]);
+        }
+        return tree;
+    }
+
+    /** Returns the heap in use after collecting garbage. */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+            System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /** Returns the nanoseconds taken to iterate the tree's elements. */
+    private static long elements(BinaryTree<Integer> tree) {
+        long start = System.nanoTime();
+        long sum = 0;
+        for (Integer e : tree)
+            sum += e;
+        sink ^= sum;
+        return System.nanoTime() - start;
+    }
+
+    /** Returns the nanoseconds taken to walk the given positions. */
+    private static long walk(Iterable<Position<Integer>> positions) {
+        long start = System.nanoTime();
+        long sum = 0;
+        for (Position<Integer> p : positions)
+            sum += p.getElement();
+        sink ^= sum;
+        return System.nanoTime() - start;
+    }
+
+    /** Per-thread allocation counter, or null if the JVM has none. */
+    private static final com.sun.management.ThreadMXBean THREADS =
+                                                        allocationCounter();
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        java.lang.management.ThreadMXBean bean =
+                                    ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+        com.sun.management.ThreadMXBean threads =
+                                    (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) return null;
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+
+    private static long allocatedBytes() {
+        if (THREADS == null) return 0;
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Removes a leaf and adds its element back in the same place, n times
+     * over the leaves of the tree in turn
+     * @param bytes  receives the bytes allocated in bytes[0]
+     * @return the nanoseconds taken
+     */
+    private static long churn(Impl impl, BinaryTree<Integer> tree, long[] bytes) {
+        Builder b = impl.builder;
+        List<Position<Integer>> found = new ArrayList<>();
+        for (Position<Integer> p : tree.positions())
+            if (tree.isExternal(p))
+                found.add(p);
+        Position<Integer>[] leaves = found.toArray(newPositions(0));
+        int n = tree.size();
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            int j = i % leaves.length;
+            Position<Integer> leaf = leaves[j];
+            Position<Integer> parent = tree.parent(leaf);
+            if (parent == null) {
+                leaves[j] = b.addRoot(tree, b.remove(tree, leaf));
+                continue;
+            }
+            boolean isLeft = leaf.equals(tree.left(parent));
+            Integer e = b.remove(tree, leaf);
+            leaves[j] = (isLeft ? b.addLeft(tree, parent, e)
+                                : b.addRight(tree, parent, e));
+        }
+        long nanos = System.nanoTime() - start;
+        bytes[0] = allocatedBytes() - allocated;
+        return nanos;
+    }
+
+    private static Iterable<Position<Integer>> inorder(BinaryTree<Integer> t) {
+        if (t instanceof LinkedBinaryTree)
+            return ((LinkedBinaryTree<Integer>) t).inorder();
+        return ((ArrayBinaryTree<Integer>) t).inorder();
+    }
+
+    private static Iterable<Position<Integer>> breadthfirst(BinaryTree<Integer> t) {
+        if (t instanceof LinkedBinaryTree)
+            return ((LinkedBinaryTree<Integer>) t).breadthfirst();
+        return ((ArrayBinaryTree<Integer>) t).breadthfirst();
+    }
+
+    /** Parses the comma-separated values of the setting name (if given). */
+    private static String[] setting(String[] args, String name, String dflt) {
+        for (String arg : args)
+            if (arg.startsWith(name + "="))
+                return arg.substring(name.length() + 1).split(",");
+        return dflt.split(",");
+    }
+
+    public static void main(String[] args) {
+        String[] impls = setting(args, "impls", "LINKED,LINKED_RECYCLING,ARRAY");
+        String[] shapes = setting(args, "shapes", "COMPLETE,RANDOM");
+        String[] sizes = setting(args, "sizes", "1000,100000,1000000");
+        int warmup = Integer.parseInt(setting(args, "warmup", "3")[0]);
+        int iterations = Integer.parseInt(setting(args, "iterations", "5")[0]);
+
+        System.out.printf(
+                "%-16s %-9s %9s %10s %8s %10s %10s %10s %10s %10s %8s%n",
+                "impl", "shape", "size", "build ns", "B/node", "elems ns",
+                "pre ns", "in ns", "bfs ns", "churn ns", "churn B");
+        for (String shape : shapes) {
+            Shape s = Shape.valueOf(shape);
+            for (String size : sizes) {
+                int n = Integer.parseInt(size);
+                int[] parent = new int[n];
+                boolean[] isLeft = new boolean[n];
+                s.plan(parent, isLeft, new Random(42));
+                // boxed once, so only the trees' own structure is measured
+                Integer[] elements = new Integer[n];
+                for (int e = 0; e < n; e++)
+                    elements[e] = e;
+                for (String impl : impls) {
+                    Impl i = Impl.valueOf(impl);
+                    for (int w = 0; w < warmup; w++) {
+                        BinaryTree<Integer> tree = build(i, elements, parent, isLeft);
+                        elements(tree);
+                        walk(tree.positions());
+                        walk(inorder(tree));
+                        walk(breadthfirst(tree));
+                        churn(i, tree, new long[1]);
+                    }
+                    long build = 0, bytes = 0, elems = 0, pre = 0, in = 0, bfs = 0;
+                    long churn = 0, churnBytes = 0;
+                    long[] allocated = new long[1];
+                    for (int it = 0; it < iterations; it++) {
+                        long before = usedHeap();
+                        long start = System.nanoTime();
+                        BinaryTree<Integer> tree = build(i, elements, parent, isLeft);
+                        build += System.nanoTime() - start;
+                        bytes += usedHeap() - before;
+                        elems += elements(tree);
+                        pre += walk(tree.positions());
+                        in += walk(inorder(tree));
+                        bfs += walk(breadthfirst(tree));
+                        churn += churn(i, tree, allocated);
+                        churnBytes += allocated[0];
+                        sink ^= tree.size();
+                    }
+                    double nodes = (double) n * iterations;
+                    System.out.printf(
+                            "%-16s %-9s %9d %10.1f %8.1f %10.1f %10.1f %10.1f %10.1f %10.1f %8.1f%n",
+                            impl, shape, n, build / nodes, bytes / nodes,
+                            elems / nodes, pre / nodes, in / nodes, bfs / nodes,
+                            churn / nodes, churnBytes / nodes);
+                }
+            }
+        }
+    }
+}
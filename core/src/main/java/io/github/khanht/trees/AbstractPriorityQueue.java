@@ -0,0 +1,210 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/** An abstract base class to assist implementations of the PriorityQueue 
+ * interface */
+public abstract class AbstractPriorityQueue<K,V> implements PriorityQueue<K,V> {
+    //---------------- nested PQEntry class ----------------
+    protected static class PQEntry<K,V> implements Entry<K,V> {
+        private K k; // key
+        private V v; // value
+        private long sortKey; // cached by the queue when it has a sort key
+        private long sequence; // order of creation, breaking ties if stable
+        public PQEntry(K key, V value) {
+            k = key;
+            v = value;
+        }
+        public K getKey( ) { return k; }
+        public V getValue( ) { return v; }
+        // utilities not exposed as part of the Entry interface
+        protected void setKey(K key) { k = key; }
+        protected void setValue(V value) { v = value; }
+    }
+    //----------- end of nested PQEntry class -----------
+    
+    // instance variable for an AbstractPriorityQueue
+    /** The comparator defining the ordering of keys in the priority queue. */
+    private Comparator<K> comp;
+    /** Whether comp is the natural ordering, so keys can be compared directly. */
+    private final boolean natural;
+    /** Maps keys to longs cached in each entry (or null if not used). */
+    private ToLongFunction<? super K> sortKey = null;
+    /** Whether entries with equal keys are ordered by their creation. */
+    private boolean stable = false;
+    /** The sequence number of the next entry created. */
+    private long nextSequence = 0;
+    /** The recorder notified of operations; a no-op unless metrics are enabled. */
+    protected MetricsRecorder metrics = NoOpMetricsRecorder.INSTANCE;
+    /** Creates an empty priority queue using the given comparator to order keys. */
+    protected AbstractPriorityQueue(Comparator<K> c) {
+        comp = c;
+        natural = (c != null && (c.getClass() == DefaultComparator.class
+                                 || c == Comparator.naturalOrder()));
+    }
+    /** Creates an empty priority queue based on the natural ordering of its keys. */
+    protected AbstractPriorityQueue( ) { this(new DefaultComparator<K>( )); }
+    /**
+     * Method for comparing two entries according to key. Cached sort keys
+     * are compared first; keys are only compared when they tie, through
+     * Comparable directly under the natural ordering and the comparator
+     * otherwise. Equal keys of a stable queue are ordered by the entries'
+     * sequence numbers. Either way, one comparison is recorded.
+     */
+    protected int compare(Entry<K,V> a, Entry<K,V> b) {
+        metrics.recordComparison();
+        if (sortKey != null) {
+            long x = ((PQEntry<K,V>) a).sortKey;
+            long y = ((PQEntry<K,V>) b).sortKey;
+            if (x != y) return (x < y ? -1 : 1);
+        }
+        int c = (natural ? compareNatural(a.getKey( ), b.getKey( ))
+                         : comp.compare(a.getKey( ), b.getKey( )));
+        if (c == 0 && stable)
+            return Long.compare(((PQEntry<K,V>) a).sequence,
+                                ((PQEntry<K,V>) b).sequence);
+        return c;
+    }
+    /** Method for comparing two keys */
+    protected int compareKeys(K a, K b) {
+        metrics.recordComparison();
+        if (sortKey != null) {
+            long x = sortKey.applyAsLong(a);
+            long y = sortKey.applyAsLong(b);
+            if (x != y) return (x < y ? -1 : 1);
+        }
+        if (natural)
+            return compareNatural(a, b);
+        return comp.compare(a, b);
+    }
+    /** Compares two keys by natural order, which natural guarantees they have. */
+    @SuppressWarnings("unchecked")
+    private static <K> int compareNatural(K a, K b) {
+        return ((Comparable<K>) a).compareTo(b);
+    }
+    /** Caches the sort key of an entry's key in the entry. */
+    protected <E extends PQEntry<K,V>> E keyed(E entry) {
+        if (sortKey != null)
+            ((PQEntry<K,V>) entry).sortKey =
+                                sortKey.applyAsLong(entry.getKey( ));
+        return entry;
+    }
+    /**
+     * Prepares a new entry for comparison, stamping its sequence number and
+     * caching its sort key. Every entry that is compared must have been
+     * created through this method, and re-keyed through setKey.
+     */
+    protected <E extends PQEntry<K,V>> E initEntry(E entry) {
+        if (stable)
+            ((PQEntry<K,V>) entry).sequence = nextSequence();
+        return keyed(entry);
+    }
+    /** Returns the sequence number of a new entry of a stable queue. */
+    protected long nextSequence() { return nextSequence++; }
+    /**
+     * Advances the sequence numbers of this queue past those of another
+     * queue whose entries it takes over, so that entries created later sort
+     * after them.
+     * @param other  the queue whose entries were taken over
+     */
+    protected void advanceSequence(AbstractPriorityQueue<K,V> other) {
+        nextSequence = Math.max(nextSequence, other.nextSequence);
+    }
+    /** Factory function creating the entry for a new key-value pair. */
+    protected PQEntry<K,V> newEntry(K key, V value) {
+        return initEntry(new PQEntry<>(key, value));
+    }
+    /** Changes the key of an entry, refreshing its cached sort key. */
+    protected void setKey(PQEntry<K,V> entry, K key) {
+        entry.setKey(key);
+        keyed(entry);
+    }
+    /** Determines whether a key is valid. */
+    protected boolean checkKey(K key) throws IllegalArgumentException {
+        try {
+            return (comp.compare(key,key) == 0);
+        }
+        catch (ClassCastException e) {
+            throw new IllegalArgumentException("Incompatible key");
+        }
+    }
+    /** Returns the function mapping keys to cached sort keys (or null). */
+    public ToLongFunction<? super K> getSortKey() { return sortKey; }
+    /**
+     * Sets a function mapping each key to a long that is cached in its
+     * entry and compared before the keys themselves, so that most
+     * comparisons are of two longs. The function must agree with the
+     * ordering of keys: if a key is less than another, its sort key must not
+     * be greater. Equal sort keys fall back to comparing the keys, so the
+     * function may be coarser than the ordering (null disables).
+     * @param f  the sort key function
+     * @throws IllegalStateException if the priority queue is not empty
+     */
+    public void setSortKey(ToLongFunction<? super K> f)
+                                    throws IllegalStateException {
+        if (!isEmpty())
+            throw new IllegalStateException("Sort key set on a nonempty queue");
+        sortKey = f;
+    }
+    /** Tests whether entries with equal keys leave in the order inserted. */
+    public boolean isStable() { return stable; }
+    /**
+     * Makes entries with equal keys leave in the order they were inserted
+     * (if stable is true), by stamping each new entry with a sequence number
+     * that breaks ties between equal keys. An entry keeps its place among
+     * equal keys when its key is replaced. A subclass that cannot order
+     * equal keys may refuse to become stable by throwing
+     * UnsupportedOperationException, but accepts stable set to false.
+     * @param stable  whether the queue is stable
+     * @throws IllegalStateException if the priority queue is not empty
+     * @throws UnsupportedOperationException if stable is true and the
+     * subclass cannot be stable
+     */
+    public void setStable(boolean stable) throws IllegalStateException {
+        if (!isEmpty())
+            throw new IllegalStateException("Stability set on a nonempty queue");
+        this.stable = stable;
+    }
+    /** Returns the recorder notified of this queue's operations. */
+    public MetricsRecorder getMetricsRecorder() { return metrics; }
+    /** Sets the recorder notified of this queue's operations (null disables). */
+    public void setMetricsRecorder(MetricsRecorder recorder) {
+        metrics = (recorder == null ? NoOpMetricsRecorder.INSTANCE : recorder);
+    }
+    /** Tests whether the priority queue is empty. */
+    public boolean isEmpty() { return size() == 0; }
+    /** Removes and returns up to k entries with minimal keys, in key order. */
+    public List<Entry<K,V>> removeMin(int k) throws IllegalArgumentException {
+        if (k < 0) throw new IllegalArgumentException("Negative count");
+        List<Entry<K,V>> answer = new ArrayList<>(Math.min(k, size()));
+        drainTo(answer, k);
+        return answer;
+    }
+    /** Moves up to max entries with minimal keys, in key order, into c. */
+    public int drainTo(Collection<? super Entry<K,V>> c, int max)
+                                    throws IllegalArgumentException {
+        checkDrain(c, max);
+        int count = 0;
+        while (count < max) {
+            Entry<K,V> e = removeMin();
+            if (e == null) break;
+            c.add(e);
+            count++;
+        }
+        return count;
+    }
+    /** Determines whether the arguments of drainTo are valid. */
+    protected void checkDrain(Collection<?> c, int max)
+                                    throws IllegalArgumentException {
+        if (c == null) throw new IllegalArgumentException("Null collection");
+        if (max < 0) throw new IllegalArgumentException("Negative count");
+    }
+}
@@ -0,0 +1,579 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Concrete implementation of a binary tree that stores its structure in
+ * parallel arrays. Each node is a slot index: its parent and children are
+ * ints in primitive arrays and its element sits in an Object array, so a
+ * node costs about 20 bytes and traversals read neighbouring memory instead
+ * of following references. Slots of removed nodes are kept on a free list
+ * and reused.
+ * <p>
+ * Positions are small handles created on demand rather than stored per
+ * node. A handle records the slot and its generation, which changes when the
+ * slot is freed, so a handle to a removed node is rejected even after its
+ * slot is reused. Handles for the same node are equal but need not be
+ * identical, so compare positions with equals().
+ */
+public class ArrayBinaryTree<E> extends AbstractBinaryTree<E> {
+
+    /** Index standing for no node. */
+    private static final int NONE = -1;
+    /** Parent of a slot on the free list. */
+    private static final int FREE = -2;
+    /** Initial number of slots when none is given. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    //---------------- nested Handle class ----------------
+    private static final class Handle<E> implements Position<E> {
+        private final ArrayBinaryTree<E> tree;
+        private final int index;
+        private final int generation;
+
+        Handle(ArrayBinaryTree<E> tree, int index, int generation) {
+            this.tree = tree;
+            this.index = index;
+            this.generation = generation;
+        }
+
+        public E getElement() throws IllegalStateException {
+            if (!tree.isLive(this))
+                throw new IllegalStateException("Position is no longer valid");
+            return tree.element(index);
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Handle)) return false;
+            Handle<?> h = (Handle<?>) o;
+            return tree == h.tree && index == h.index
+                && generation == h.generation;
+        }
+
+        public int hashCode() { return 31 * index + generation; }
+    }
+    //----------- end of nested Handle class -----------
+
+    // ArrayBinaryTree instance variables
+    private int[] parent;
+    private int[] left;           // next free slot, for a slot on the free list
+    private int[] right;
+    private int[] generation;
+    private Object[] elements;
+    private int root = NONE;
+    private int size = 0;
+    private int slots = 0;        // slots ever used
+    private int free = NONE;      // first slot of the free list
+    /** The number of structural changes, for failing iterators fast. */
+    protected int modCount = 0;
+
+    //constructors
+    public ArrayBinaryTree() { this(DEFAULT_CAPACITY); }
+    public ArrayBinaryTree(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Negative capacity");
+        int capacity = Math.max(initialCapacity, 1);
+        parent = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        generation = new int[capacity];
+        elements = new Object[capacity];
+    }
+
+    /** Returns the element in slot i. */
+    @SuppressWarnings("unchecked")
+    private E element(int i) { return (E) elements[i]; }
+
+    /** Determines whether a handle refers to a node still in this tree. */
+    private boolean isLive(Handle<E> h) {
+        return h.index < slots && parent[h.index] != FREE
+            && generation[h.index] == h.generation;
+    }
+
+    /** Returns a handle for slot i (or null if i is NONE). */
+    private Position<E> position(int i) {
+        return (i == NONE ? null : new Handle<>(this, i, generation[i]));
+    }
+
+    /**
+     * Validates the position and returns its slot index.
+     * @param p  a position of the tree
+     * @return the slot of the position
+     * @throws IllegalArgumentException if position is not valid
+     */
+    protected int validate(Position<E> p) throws IllegalArgumentException {
+        if (!(p instanceof Handle))
+            throw new IllegalArgumentException("Not valid position type");
+        Handle<E> h = (Handle<E>) p;
+        if (h.tree != this)
+            throw new IllegalArgumentException("p does not belong to this tree");
+        if (!isLive(h))
+            throw new IllegalArgumentException("p is no longer in the tree");
+        return h.index;
+    }
+
+    /**
+     * Grows the arrays, if necessary, to hold the given number of slots
+     * @param capacity  the number of slots that must fit
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= parent.length) return;
+        if (capacity < 0)
+            throw new IllegalStateException("Tree is too large");
+        int grown = parent.length + (parent.length >> 1);
+        if (grown < capacity || grown < 0)
+            grown = capacity;
+        parent = Arrays.copyOf(parent, grown);
+        left = Arrays.copyOf(left, grown);
+        right = Arrays.copyOf(right, grown);
+        generation = Arrays.copyOf(generation, grown);
+        elements = Arrays.copyOf(elements, grown);
+    }
+
+    /**
+     * Takes a slot from the free list, or a new one, for a leaf
+     * @param e  the element of the new node
+     * @param p  the slot of its parent (or NONE)
+     * @return the slot of the new node
+     */
+    private int allocate(E e, int p) {
+        int i;
+        if (free != NONE) {
+            i = free;
+            free = left[i];
+        }
+        else {
+            ensureCapacity(slots + 1);
+            i = slots++;
+        }
+        parent[i] = p;
+        left[i] = NONE;
+        right[i] = NONE;
+        elements[i] = e;
+        size++;
+        modCount++;
+        return i;
+    }
+
+    /**
+     * Returns a slot to the free list, invalidating its positions
+     * @param i  the slot to be freed
+     */
+    private void release(int i) {
+        elements[i] = null;
+        generation[i]++;
+        parent[i] = FREE;
+        right[i] = NONE;
+        left[i] = free;
+        free = i;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the root of the tree
+     */
+    public Position<E> root() {
+        return position(root);
+    }
+
+    /**
+     * Get the parent of given position
+     * @param p  the position given
+     * @return the position of the parent
+     * @throws IllegalArgumentException if position is not valid
+     */
+    public Position<E> parent(Position<E> p) throws IllegalArgumentException {
+        return position(parent[validate(p)]);
+    }
+
+    /**
+     * Get the left child of given position
+     * @param p  the position given
+     * @return the position of the left child
+     * @throws IllegalArgumentException if position is not valid
+     */
+    public Position<E> left(Position<E> p) throws IllegalArgumentException {
+        return position(left[validate(p)]);
+    }
+
+    /**
+     * Get the right child of given position
+     * @param p  the position given
+     * @return the position of right child
+     * @throws IllegalArgumentException if position is not valid
+     */
+    public Position<E> right(Position<E> p) throws IllegalArgumentException {
+        return position(right[validate(p)]);
+    }
+
+    /** Returns the Position of p's sibling (or null if no sibling exists). */
+    public Position<E> sibling(Position<E> p) throws IllegalArgumentException {
+        int i = validate(p);
+        int above = parent[i];
+        if (above == NONE) return null;
+        return position(left[above] == i ? right[above] : left[above]);
+    }
+
+    /** Returns the number of children of Position p. */
+    public int numChildren(Position<E> p) throws IllegalArgumentException {
+        int i = validate(p);
+        return (left[i] != NONE ? 1 : 0) + (right[i] != NONE ? 1 : 0);
+    }
+
+    public boolean isRoot(Position<E> p) throws IllegalArgumentException {
+        return validate(p) == root;
+    }
+
+    /**
+     * Add a new root position
+     * @param e  the element assigned to position
+     * @return the position of root
+     * @throws IllegalStateException if the tree is not empty
+     */
+    public Position<E> addRoot(E e) throws IllegalStateException {
+        if (!isEmpty()) throw new IllegalStateException("Tree is not empty");
+        root = allocate(e, NONE);
+        return position(root);
+    }
+
+    /**
+     * Add left child to given position
+     * @param p  position to add child to
+     * @param e  element assigned to child
+     * @return the position of new child
+     * @throws IllegalArgumentException if p is not valid or has a left child
+     */
+    public Position<E> addLeft(Position<E> p, E e)
+                                    throws IllegalArgumentException {
+        int i = validate(p);
+        if (left[i] != NONE)
+            throw new IllegalArgumentException("p already has a left child");
+        int child = allocate(e, i);
+        left[i] = child;
+        return position(child);
+    }
+
+    /**
+     * Add right child to given position
+     * @param p  position to add child to
+     * @param e  element assigned to child
+     * @return the position of new child
+     * @throws IllegalArgumentException if p is not valid or has a right child
+     */
+    public Position<E> addRight(Position<E> p, E e)
+                                    throws IllegalArgumentException {
+        int i = validate(p);
+        if (right[i] != NONE)
+            throw new IllegalArgumentException("p already has a right child");
+        int child = allocate(e, i);
+        right[i] = child;
+        return position(child);
+    }
+
+    /**
+     * Replace element at given position
+     * @param p  position to be affected
+     * @param e  the new element
+     * @return the old element
+     * @throws IllegalArgumentException if position is not valid
+     */
+    public E set(Position<E> p, E e) throws IllegalArgumentException {
+        int i = validate(p);
+        E temp = element(i);
+        elements[i] = e;
+        return temp;
+    }
+
+    /**
+     * Attach subtrees to given position. The nodes of t1 and t2 are copied
+     * into this tree and both are left empty; their positions are no longer
+     * valid.
+     * @param p   position to be affected
+     * @param t1  the left subtree to be attached
+     * @param t2  the right subtree to be attached
+     * @throws IllegalArgumentException if p is not a valid leaf, or t1 or t2
+     *                                  is this tree
+     */
+    public void attach(Position<E> p, ArrayBinaryTree<E> t1,
+                       ArrayBinaryTree<E> t2) throws IllegalArgumentException {
+        int i = validate(p);
+        if (left[i] != NONE || right[i] != NONE)
+            throw new IllegalArgumentException("p must be a leaf");
+        if (t1 == this || t2 == this)
+            throw new IllegalArgumentException("Cannot attach a tree to itself");
+        ensureCapacity(slots + t1.size() + t2.size());
+        if (!t1.isEmpty()) {
+            left[i] = copyOf(t1, i);
+            t1.clear();
+        }
+        if (!t2.isEmpty()) {
+            right[i] = copyOf(t2, i);
+            t2.clear();
+        }
+    }
+
+    /**
+     * Copies the nodes of another tree into new slots of this one
+     * @param t      the tree to be copied
+     * @param above  the slot that becomes the parent of t's root
+     * @return the slot of the copy of t's root
+     */
+    private int copyOf(ArrayBinaryTree<E> t, int above) {
+        int[] copied = new int[t.slots];     // slot in this tree, by slot in t
+        int top = NONE;
+        for (int n = t.root; n != NONE; n = t.preorderNext(n, t.root)) {
+            if (n == t.root) {
+                top = allocate(t.element(n), above);
+                copied[n] = top;
+                continue;
+            }
+            int p = copied[t.parent[n]];
+            int c = allocate(t.element(n), p);
+            copied[n] = c;
+            if (t.left[t.parent[n]] == n)
+                left[p] = c;
+            else
+                right[p] = c;
+        }
+        return top;
+    }
+
+    /** Removes every node, invalidating all positions. */
+    private void clear() {
+        for (int i = 0; i < slots; i++)
+            generation[i]++;
+        Arrays.fill(elements, 0, slots, null);
+        root = NONE;
+        size = 0;
+        slots = 0;
+        free = NONE;
+        modCount++;
+    }
+
+    /**
+     * Remove the given position
+     * @param p  position to be removed
+     * @return the the element of removed position
+     * @throws IllegalArgumentException if position is not valid
+     */
+    public E remove(Position<E> p) throws IllegalArgumentException {
+        int i = validate(p);
+        if (left[i] != NONE && right[i] != NONE)
+            throw new IllegalArgumentException("p has two children");
+        int child = (left[i] != NONE ? left[i] : right[i]);
+        int above = parent[i];
+        if (child != NONE)
+            parent[child] = above;
+        if (i == root)
+            root = child;
+        else if (left[above] == i)
+            left[above] = child;
+        else
+            right[above] = child;
+        E temp = element(i);
+        release(i);
+        return temp;
+    }
+
+    //---------------- nested SlotIterator classes ----------------
+    /**
+     * An iterator that walks the slots of the tree without recursion or
+     * allocation per node. Any structural change to the tree after the
+     * iterator is created makes it fail fast.
+     */
+    private abstract class SlotIterator {
+        private int next;
+        private final int expectedModCount = modCount;
+
+        SlotIterator(int first) { next = first; }
+
+        /** Returns the slot visited after slot i (or NONE). */
+        protected abstract int successor(int i);
+
+        public boolean hasNext() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return next != NONE;
+        }
+
+        protected int nextSlot() {
+            if (!hasNext()) throw new NoSuchElementException();
+            int current = next;
+            next = successor(current);
+            return current;
+        }
+    }
+
+    private class PositionIterator extends SlotIterator
+                                   implements Iterator<Position<E>> {
+        private final int order;
+        PositionIterator(int order) {
+            super(first(order));
+            this.order = order;
+        }
+        protected int successor(int i) { return ArrayBinaryTree.this.successor(i, order); }
+        public Position<E> next() { return position(nextSlot()); }
+    }
+
+    /** Iterates the elements in preorder without creating positions. */
+    private class ElementIterator extends SlotIterator implements Iterator<E> {
+        ElementIterator() { super(root); }
+        protected int successor(int i) { return preorderNext(i, root); }
+        public E next() { return element(nextSlot()); }
+    }
+
+    /** Iterates the positions level by level through an array of slots. */
+    private class BreadthFirstIterator implements Iterator<Position<E>> {
+        private final int[] queue = new int[size];
+        private int head = 0;
+        private int tail = 0;
+        private final int expectedModCount = modCount;
+
+        BreadthFirstIterator() { if (root != NONE) queue[tail++] = root; }
+
+        public boolean hasNext() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return head < tail;
+        }
+
+        public Position<E> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            int current = queue[head++];
+            if (left[current] != NONE) queue[tail++] = left[current];
+            if (right[current] != NONE) queue[tail++] = right[current];
+            return position(current);
+        }
+    }
+    //----------- end of nested SlotIterator classes -----------
+
+    // traversal orders understood by first and successor
+    private static final int PREORDER = 0;
+    private static final int INORDER = 1;
+    private static final int POSTORDER = 2;
+
+    /** Returns the first slot of the tree in the given order (or NONE). */
+    private int first(int order) {
+        if (order == PREORDER) return root;
+        if (order == INORDER) return leftmost(root);
+        return firstPostorder(root);
+    }
+
+    /** Returns the slot after slot i in the given order (or NONE). */
+    private int successor(int i, int order) {
+        if (order == PREORDER) return preorderNext(i, root);
+        if (order == INORDER) {
+            if (right[i] != NONE) return leftmost(right[i]);
+            // climb until we leave a left child
+            for (; i != root; i = parent[i])
+                if (left[parent[i]] == i)
+                    return parent[i];
+            return NONE;
+        }
+        if (i == root) return NONE;
+        int above = parent[i];
+        if (left[above] == i && right[above] != NONE)
+            return firstPostorder(right[above]);
+        return above;
+    }
+
+    /**
+     * Returns the slot visited after slot i in a preorder walk of the
+     * subtree rooted at top (or NONE)
+     */
+    private int preorderNext(int i, int top) {
+        if (left[i] != NONE) return left[i];
+        if (right[i] != NONE) return right[i];
+        // climb until we leave a left child that has a right sibling
+        for (; i != top; i = parent[i]) {
+            int above = parent[i];
+            if (left[above] == i && right[above] != NONE)
+                return right[above];
+        }
+        return NONE;
+    }
+
+    /** Returns the leftmost slot of the subtree rooted at i (or NONE). */
+    private int leftmost(int i) {
+        if (i != NONE)
+            while (left[i] != NONE)
+                i = left[i];
+        return i;
+    }
+
+    /** Returns the first slot of the subtree rooted at i in postorder. */
+    private int firstPostorder(int i) {
+        if (i != NONE)
+            while (left[i] != NONE || right[i] != NONE)
+                i = (left[i] != NONE ? left[i] : right[i]);
+        return i;
+    }
+
+    public Iterator<E> iterator() { return new ElementIterator(); }
+
+    public Iterable<Position<E>> positions() { return preorder(); }
+
+    /**
+     * @return the positions of the tree in preorder, visited lazily
+     */
+    public Iterable<Position<E>> preorder() {
+        return () -> new PositionIterator(PREORDER);
+    }
+
+    /**
+     * @return the positions of the tree in inorder, visited lazily
+     */
+    public Iterable<Position<E>> inorder() {
+        return () -> new PositionIterator(INORDER);
+    }
+
+    /**
+     * @return the positions of the tree in postorder, visited lazily
+     */
+    public Iterable<Position<E>> postorder() {
+        return () -> new PositionIterator(POSTORDER);
+    }
+
+    /**
+     * @return the positions of the tree level by level, visited lazily
+     */
+    public Iterable<Position<E>> breadthfirst() {
+        return () -> new BreadthFirstIterator();
+    }
+
+    public static void main(String[] args) {
+        //The decision tree of LinkedBinaryTree, printed in preorder
+        ArrayBinaryTree<String> decisions = new ArrayBinaryTree<>();
+        Position<String> root = decisions.addRoot("Do you have a dog?");
+        decisions.addLeft(root, "We can be friends");
+        Position<String> firstNo = decisions.addRight(root,
+                                            "Are you allergic to dogs?");
+        decisions.addLeft(firstNo, "Sorry for your loss");
+        Position<String> secondNo = decisions.addRight(firstNo,
+                                            "Do you want a dog?");
+        decisions.addLeft(secondNo, "Pug life!");
+        decisions.addRight(secondNo, "This conversation is over");
+        for (Position<String> p : decisions.preorder()) {
+            int depth = 0;
+            for (Position<String> q = p; !decisions.isRoot(q);
+                                         q = decisions.parent(q))
+                depth++;
+            System.out.println("  ".repeat(depth) + p.getElement());
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/** An implementation of a priority queue using an array-based heap. */
+public class ArrayHeapPriorityQueue<K,V> extends AbstractPriorityQueue<K,V> {
+
+    /** Initial capacity of the heap array when none is given. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Primary collection of priority queue entries, stored in level order. */
+    protected Entry<K,V>[] heap;
+    private int size = 0;
+    /** The number of changes to the heap, for failing iterators fast. */
+    protected int modCount = 0;
+
+    //constructors
+    public ArrayHeapPriorityQueue() { this(DEFAULT_CAPACITY); }
+    public ArrayHeapPriorityQueue(Comparator<K> comp) {
+        this(DEFAULT_CAPACITY, comp);
+    }
+    public ArrayHeapPriorityQueue(int initialCapacity) {
+        super();
+        heap = newArray(initialCapacity);
+    }
+    public ArrayHeapPriorityQueue(int initialCapacity, Comparator<K> comp) {
+        super(comp);
+        heap = newArray(initialCapacity);
+    }
+    public ArrayHeapPriorityQueue(K[] keys, V[] values) {
+        this(keys, values, new DefaultComparator<K>());
+    }
+    public ArrayHeapPriorityQueue(K[] keys, V[] values, Comparator<K> comp) {
+        this(keys.length, comp);
+        if (keys.length != values.length)
+            throw new IllegalArgumentException("Keys and values differ in length");
+        for (int j = 0; j < keys.length; j++) {
+            checkKey(keys[j]);
+            add(createEntry(keys[j], values[j]));
+        }
+        heapify();
+    }
+    public ArrayHeapPriorityQueue(Iterable<? extends Entry<K,V>> entries) {
+        this(entries, new DefaultComparator<K>());
+    }
+    public ArrayHeapPriorityQueue(Iterable<? extends Entry<K,V>> entries,
+                                  Comparator<K> comp) {
+        this(DEFAULT_CAPACITY, comp);
+        addAll(entries);
+    }
+
+    /** Creates an entry array of the given length (at least one). */
+    @SuppressWarnings("unchecked")
+    private Entry<K,V>[] newArray(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("Negative capacity");
+        return (Entry<K,V>[]) new Entry<?,?>[Math.max(capacity, 1)];
+    }
+
+    /**
+     *
+     * @return size of heap
+     */
+    public int size() {
+        return size;
+    }
+
+    // protected utilities for navigating the heap by index
+    protected int parent(int j) { return (j-1) / 2; }
+    protected int left(int j) { return 2*j + 1; }
+    protected int right(int j) { return 2*j + 2; }
+    protected boolean hasLeft(int j) { return left(j) < size; }
+    protected boolean hasRight(int j) { return right(j) < size; }
+
+    /**
+     * Exchanges the entries at indices i and j
+     * @param i  first index
+     * @param j  second index
+     */
+    protected void swap(int i, int j) {
+        metrics.recordSwap();
+        modCount++;
+        Entry<K,V> temp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = temp;
+    }
+
+    /**
+     * Moves the entry at index j higher, if necessary, to maintain heap
+     * @param j  the index to start at
+     */
+    protected void upheap(int j) {
+        int levels = 0;
+        while (j > 0) {
+            int p = parent(j);
+            if (compare(heap[j], heap[p]) >= 0) break;
+            swap(j, p);
+            j = p;
+            levels++;
+        }
+        metrics.recordUpheap(levels);
+    }
+
+    /**
+     * Moves the entry at index j lower, if necessary, to maintain heap
+     * @param j  the index to start at
+     */
+    protected void downheap(int j) {
+        int levels = 0;
+        while (hasLeft(j)) {
+            int leftIndex = left(j);
+            int smallChildIndex = leftIndex;
+            if (hasRight(j)) {
+                int rightIndex = right(j);
+                if (compare(heap[leftIndex], heap[rightIndex]) > 0)
+                    smallChildIndex = rightIndex;
+            }
+            if (compare(heap[smallChildIndex], heap[j]) >= 0)
+                break;
+            swap(j, smallChildIndex);
+            j = smallChildIndex;
+            levels++;
+        }
+        metrics.recordDownheap(levels);
+    }
+
+    /**
+     * Moves the entry at the root down to a leaf along the path of smaller
+     * children, then back up to its place. The last entry of a heap, which
+     * removal moves to the root, usually belongs near the bottom, so this
+     * needs one comparison per level instead of the two of downheap.
+     */
+    protected void downheapFromRoot() {
+        int j = 0;
+        int levels = 0;
+        while (hasLeft(j)) {
+            int child = left(j);
+            if (hasRight(j) && compare(heap[child], heap[right(j)]) > 0)
+                child = right(j);
+            swap(j, child);
+            j = child;
+            levels++;
+        }
+        metrics.recordDownheap(levels);
+        upheap(j);
+    }
+
+    /** Performs a bottom-up construction of the heap in linear time. */
+    protected void heapify() {
+        int startIndex = parent(size - 1);     // start at parent of last entry
+        for (int j = startIndex; j >= 0; j--)  // loop until processing root
+            downheap(j);
+    }
+
+    /**
+     * Grows the heap array, if necessary, to hold the given number of entries
+     * @param capacity  the number of entries that must fit
+     */
+    protected void ensureCapacity(int capacity) {
+        if (capacity <= heap.length) return;
+        if (capacity < 0)
+            throw new IllegalStateException("Heap is too large");
+        int grown = heap.length + (heap.length >> 1);
+        if (grown < capacity || grown < 0)
+            grown = capacity;
+        heap = Arrays.copyOf(heap, grown);
+    }
+
+    /**
+     * Appends an entry at the end of the heap without restoring heap order
+     * @param e  the entry to be appended
+     */
+    protected void add(Entry<K,V> e) {
+        ensureCapacity(size + 1);
+        modCount++;
+        heap[size++] = e;
+    }
+
+    /**
+     * Removes the entry at the end of the heap
+     * @return the removed entry
+     */
+    protected Entry<K,V> removeLast() {
+        modCount++;
+        Entry<K,V> last = heap[--size];
+        heap[size] = null;
+        return last;
+    }
+
+    /**
+     * Factory function to create the entry stored for a new key-value pair.
+     * The entry is always placed at index size() of the heap.
+     * @param key    the key of the new entry
+     * @param value  the value of the new entry
+     * @return the new entry
+     */
+    protected Entry<K,V> createEntry(K key, V value) {
+        return newEntry(key, value);
+    }
+
+    /**
+     * Returns (but does not remove) an entry with minimal key (if any)
+     * @return the entry with minimal key
+     */
+    public Entry<K,V> min() {
+        metrics.recordMin();
+        if (isEmpty()) return null;
+        return heap[0];
+    }
+
+    /**
+     * Inserts a key-value pair and returns the entry created.
+     * @param key     the key of the new entry
+     * @param value   the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if key is not valid
+     */
+    public Entry<K,V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        metrics.recordInsert();
+        Entry<K,V> newest = createEntry(key, value);
+        add(newest);
+        metrics.recordSize(size);
+        upheap(size - 1);
+        return newest;
+    }
+
+    /**
+     * Inserts a new entry for each of the given key-value pairs. A batch that
+     * is large relative to the heap is merged by a single linear-time
+     * heapify instead of one upheap per entry.
+     * @param entries  the key-value pairs to be inserted
+     * @throws IllegalArgumentException if a key is not valid
+     */
+    public void addAll(Iterable<? extends Entry<K,V>> entries)
+                                    throws IllegalArgumentException {
+        int oldSize = size;
+        if (entries instanceof Collection)
+            ensureCapacity(size + ((Collection<?>) entries).size());
+        try {
+            for (Entry<K,V> e : entries) {
+                checkKey(e.getKey());
+                metrics.recordInsert();
+                add(createEntry(e.getKey(), e.getValue()));
+            }
+        }
+        finally {
+            metrics.recordSize(size);
+            // restore heap order even if a key was rejected part way
+            int added = size - oldSize;
+            if (isBulk(added, size))
+                heapify();
+            else
+                for (int j = oldSize; j < size; j++)
+                    upheap(j);
+        }
+    }
+
+    /**
+     * Decides whether adding a batch is cheaper with heapify, whose cost is
+     * linear in the heap size, than with one upheap of up to log n levels
+     * per added entry.
+     * @param added  the number of entries added
+     * @param total  the size of the heap including the added entries
+     * @return true if the heap should be rebuilt with heapify
+     */
+    static boolean isBulk(int added, int total) {
+        int levels = 32 - Integer.numberOfLeadingZeros(total);
+        return (long) added * levels > 2L * total;
+    }
+
+    /**
+     * Removes and returns an entry with minimal key.
+     * @return the removed entry (or null if empty)
+     */
+    public Entry<K,V> removeMin() {
+        metrics.recordRemoveMin();
+        if (isEmpty()) return null;
+        Entry<K,V> answer = heap[0];
+        swap(0, size - 1);
+        removeLast();
+        downheap(0);
+        return answer;
+    }
+
+    /**
+     * Removes up to max entries with minimal keys and adds them to the given
+     * collection in nondecreasing key order
+     * @param c    the collection to transfer entries into
+     * @param max  the maximum number of entries to transfer
+     * @return the number of entries transferred
+     * @throws IllegalArgumentException if c is null or max is negative
+     */
+    public int drainTo(Collection<? super Entry<K,V>> c, int max)
+                                    throws IllegalArgumentException {
+        checkDrain(c, max);
+        int count = Math.min(max, size);
+        for (int i = 0; i < count; i++) {
+            metrics.recordRemoveMin();
+            c.add(heap[0]);
+            swap(0, size - 1);
+            removeLast();
+            downheapFromRoot();
+        }
+        return count;
+    }
+
+    /**
+     * Returns (but does not remove) up to k entries with minimal keys, taken
+     * from orderedIterator, so this runs in O(k log k) regardless of the heap
+     * size.
+     * @param k  the maximum number of entries to return
+     * @return the entries in nondecreasing key order
+     * @throws IllegalArgumentException if k is negative
+     */
+    public List<Entry<K,V>> topK(int k) throws IllegalArgumentException {
+        if (k < 0) throw new IllegalArgumentException("Negative count");
+        List<Entry<K,V>> answer = new ArrayList<>(Math.min(k, size));
+        Iterator<Entry<K,V>> entries = orderedIterator();
+        while (answer.size() < k && entries.hasNext())
+            answer.add(entries.next());
+        return answer;
+    }
+
+    /**
+     * Returns an iterator over the entries in no particular order
+     * @return the iterator
+     */
+    public Iterator<Entry<K,V>> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Returns a spliterator over the entries in no particular order, which
+     * splits the heap array into halves
+     * @return the spliterator
+     */
+    public Spliterator<Entry<K,V>> spliterator() {
+        return new HeapSpliterator(0, -1, 0);
+    }
+
+    /**
+     * Returns an iterator over the entries in nondecreasing key order, without
+     * removing them. The first k entries take O(k log k) time.
+     * @return the iterator
+     */
+    public Iterator<Entry<K,V>> orderedIterator() {
+        HeapOrderIterator<K,V,Integer> answer = new HeapOrderIterator<K,V,Integer>(
+                (a, b) -> compare(a, b), () -> modCount) {
+            protected Entry<K,V> entryOf(Integer j) { return heap[j]; }
+            protected void offerChildren(Integer j) {
+                int last = Math.min(right(j), size - 1);
+                for (int c = left(j); c <= last; c++)   // the children of j
+                    offer(c);
+            }
+        };
+        if (size > 0) answer.offer(0);
+        return answer;
+    }
+
+    /**
+     * Returns a sequential stream of the entries in nondecreasing key order,
+     * computed lazily as by orderedIterator
+     * @return the stream
+     */
+    public Stream<Entry<K,V>> orderedStream() {
+        return StreamSupport.stream(Spliterators.spliterator(orderedIterator(),
+                size, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    //---------------- nested HeapSpliterator class ----------------
+    /**
+     * A spliterator over a range of the heap array. Its end is fixed at the
+     * first traversal or split, and a change to the heap after that fails
+     * fast.
+     */
+    private class HeapSpliterator implements Spliterator<Entry<K,V>> {
+        private int index;
+        private int fence;              // -1 until first used
+        private int expectedModCount;
+
+        HeapSpliterator(int origin, int fence, int expectedModCount) {
+            index = origin;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = size;
+            }
+            return fence;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public Spliterator<Entry<K,V>> trySplit() {
+            int hi = getFence();
+            int lo = index;
+            int mid = (lo + hi) >>> 1;
+            if (lo >= mid) return null;
+            index = mid;
+            return new HeapSpliterator(lo, mid, expectedModCount);
+        }
+
+        public boolean tryAdvance(Consumer<? super Entry<K,V>> action) {
+            if (action == null) throw new NullPointerException();
+            int hi = getFence();
+            if (index >= hi) return false;
+            checkForComodification();
+            action.accept(heap[index++]);
+            return true;
+        }
+
+        public void forEachRemaining(Consumer<? super Entry<K,V>> action) {
+            if (action == null) throw new NullPointerException();
+            int hi = getFence();
+            checkForComodification();
+            Entry<K,V>[] a = heap;
+            for (; index < hi; index++)
+                action.accept(a[index]);
+            checkForComodification();
+        }
+
+        public long estimateSize() { return getFence() - index; }
+
+        public int characteristics() {
+            return Spliterator.SIZED | Spliterator.SUBSIZED
+                 | Spliterator.NONNULL;
+        }
+    }
+    //----------- end of nested HeapSpliterator class -----------
+
+    public static void main(String[] args) {
+        //Airline standby simulation
+        ArrayHeapPriorityQueue<Integer,String> heap =
+                                        new ArrayHeapPriorityQueue<>();
+        heap.insert(4, "Joe");
+        heap.insert(5, "Maria");
+        heap.insert(3, "Sally");
+        heap.insert(1, "Bob");
+        //Let everyone board in order of priority
+        while (!heap.isEmpty())
+            System.out.println(heap.removeMin().getValue() +
+                               " boarded the plane");
+    }
+}
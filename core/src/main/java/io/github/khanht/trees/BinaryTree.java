@@ -1,4 +1,4 @@
-package Assignment3;
+package io.github.khanht.trees;
 
 /**
  *
@@ -0,0 +1,425 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe priority queue that lets consumers wait for an entry and
+ * producers wait for room, wrapping a priority queue that is not itself
+ * thread-safe.
+ * <p>
+ * The queue may be bounded, in which case put() waits while it is full. It
+ * may also hold delayed entries, whose keys give the time (on the scale of
+ * System.nanoTime()) at which they become due: take() and poll() then only
+ * return an entry with minimal key once it is due. Only one waiting consumer
+ * (the leader) times the head entry; the others wait until signalled, so a
+ * new entry wakes a single thread rather than all of them.
+ * <p>
+ * Waiting uses a ReentrantLock and its conditions rather than monitors, so a
+ * waiting virtual thread does not pin its carrier.
+ */
+public class BlockingPriorityQueue<K,V> implements PriorityQueue<K,V> {
+
+    private final PriorityQueue<K,V> queue;
+    private final int capacity;
+    /** Gives the due time of a key, or is null if entries are due at once. */
+    private final ToLongFunction<? super K> dueTime;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    /** Signalled when an entry may have become available to a consumer. */
+    private final Condition available = lock.newCondition();
+    /** Signalled when room has been made in a bounded queue. */
+    private final Condition notFull = lock.newCondition();
+    /** The consumer timing the head entry in a delayed queue (if any). */
+    private Thread leader = null;
+
+    //constructors
+    public BlockingPriorityQueue(PriorityQueue<K,V> queue) {
+        this(queue, Integer.MAX_VALUE);
+    }
+    public BlockingPriorityQueue(PriorityQueue<K,V> queue, int capacity) {
+        this(queue, capacity, null);
+    }
+    /**
+     * Creates a blocking priority queue that takes over the given queue. The
+     * given queue must not be used directly afterwards.
+     * @param queue     the priority queue holding the entries
+     * @param capacity  the maximum number of entries
+     * @param dueTime   gives the System.nanoTime() at which an entry with the
+     *                  given key becomes due, or null if entries are due at once
+     * @throws IllegalArgumentException if queue is null or capacity is not positive
+     */
+    public BlockingPriorityQueue(PriorityQueue<K,V> queue, int capacity,
+                                 ToLongFunction<? super K> dueTime)
+                                 throws IllegalArgumentException {
+        if (queue == null) throw new IllegalArgumentException("Null queue");
+        if (capacity < 1) throw new IllegalArgumentException("No capacity");
+        this.queue = queue;
+        this.capacity = capacity;
+        this.dueTime = dueTime;
+    }
+
+    /**
+     * Returns the time until the given entry is due
+     * @param e  an entry of the queue
+     * @return the remaining delay in nanoseconds (zero or less if due)
+     */
+    private long delay(Entry<K,V> e) {
+        if (dueTime == null) return 0;
+        return dueTime.applyAsLong(e.getKey()) - System.nanoTime();
+    }
+
+    /**
+     * @return the maximum number of entries the queue can hold
+     */
+    public int capacity() { return capacity; }
+
+    /**
+     * @return the number of additional entries that can be inserted without
+     *         waiting
+     */
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - queue.size();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of entries in the queue, including those not yet due
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return queue.size();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return true if the queue holds no entries
+     */
+    public boolean isEmpty() { return size() == 0; }
+
+    /**
+     * Inserts an entry when there is room (lock is held), waking a consumer
+     * if it became the head of the queue
+     * @param key    the key of the new entry
+     * @param value  the value of the new entry
+     * @return the new entry
+     */
+    private Entry<K,V> enqueue(K key, V value) {
+        Entry<K,V> newest = queue.insert(key, value);
+        if (queue.min() == newest) {
+            leader = null;
+            available.signal();
+        }
+        return newest;
+    }
+
+    /**
+     * Removes the head of the queue (lock is held), waking a producer
+     * @return the removed entry
+     */
+    private Entry<K,V> dequeue() {
+        Entry<K,V> answer = queue.removeMin();
+        notFull.signal();
+        return answer;
+    }
+
+    /**
+     * Inserts a key-value pair without waiting
+     * @param key     the key of the new entry
+     * @param value   the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if key is not valid
+     * @throws IllegalStateException if the queue is full
+     */
+    public Entry<K,V> insert(K key, V value)
+                        throws IllegalArgumentException, IllegalStateException {
+        Entry<K,V> newest = offer(key, value);
+        if (newest == null) throw new IllegalStateException("Queue is full");
+        return newest;
+    }
+
+    /**
+     * Inserts a key-value pair if there is room
+     * @param key     the key of the new entry
+     * @param value   the associated value of the new entry
+     * @return the entry storing the new key-value pair (or null if full)
+     * @throws IllegalArgumentException if key is not valid
+     */
+    public Entry<K,V> offer(K key, V value) throws IllegalArgumentException {
+        lock.lock();
+        try {
+            if (queue.size() >= capacity) return null;
+            return enqueue(key, value);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts a key-value pair, waiting up to the given time for room
+     * @param key      the key of the new entry
+     * @param value    the associated value of the new entry
+     * @param timeout  how long to wait for room
+     * @param unit     the unit of timeout
+     * @return the entry storing the new key-value pair (or null if still full)
+     * @throws IllegalArgumentException if key is not valid
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Entry<K,V> offer(K key, V value, long timeout, TimeUnit unit)
+                    throws IllegalArgumentException, InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (queue.size() >= capacity) {
+                if (nanos <= 0) return null;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            return enqueue(key, value);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts a key-value pair, waiting as long as necessary for room
+     * @param key    the key of the new entry
+     * @param value  the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if key is not valid
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Entry<K,V> put(K key, V value)
+                    throws IllegalArgumentException, InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (queue.size() >= capacity)
+                notFull.await();
+            return enqueue(key, value);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns (but does not remove) an entry with minimal key, due or not
+     * @return the entry with minimal key (or null if empty)
+     */
+    public Entry<K,V> min() {
+        lock.lock();
+        try {
+            return queue.min();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns an entry with minimal key without waiting
+     * @return the removed entry (or null if empty or the entry is not yet due)
+     */
+    public Entry<K,V> removeMin() {
+        lock.lock();
+        try {
+            Entry<K,V> first = queue.min();
+            if (first == null || delay(first) > 0) return null;
+            return dequeue();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns an entry with minimal key, waiting until one is
+     * available and due
+     * @return the removed entry
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Entry<K,V> take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                Entry<K,V> first = queue.min();
+                if (first == null) {
+                    available.await();
+                    continue;
+                }
+                long nanos = delay(first);
+                if (nanos <= 0) return dequeue();
+                if (leader != null)
+                    available.await();
+                else {
+                    Thread thisThread = Thread.currentThread();
+                    leader = thisThread;
+                    try {
+                        available.awaitNanos(nanos);
+                    }
+                    finally {
+                        if (leader == thisThread) leader = null;
+                    }
+                }
+            }
+        }
+        finally {
+            if (leader == null && queue.min() != null)
+                available.signal();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns an entry with minimal key, waiting up to the given
+     * time for one to be available and due
+     * @param timeout  how long to wait
+     * @param unit     the unit of timeout
+     * @return the removed entry (or null if none became available in time)
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Entry<K,V> poll(long timeout, TimeUnit unit)
+                                    throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                Entry<K,V> first = queue.min();
+                if (first == null) {
+                    if (nanos <= 0) return null;
+                    nanos = available.awaitNanos(nanos);
+                    continue;
+                }
+                long delay = delay(first);
+                if (delay <= 0) return dequeue();
+                if (nanos <= 0) return null;
+                if (nanos < delay || leader != null)
+                    nanos = available.awaitNanos(nanos);
+                else {
+                    Thread thisThread = Thread.currentThread();
+                    leader = thisThread;
+                    try {
+                        long timeLeft = available.awaitNanos(delay);
+                        nanos -= delay - timeLeft;
+                    }
+                    finally {
+                        if (leader == thisThread) leader = null;
+                    }
+                }
+            }
+        }
+        finally {
+            if (leader == null && queue.min() != null)
+                available.signal();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes up to k due entries with minimal keys without waiting
+     * @param k  the maximum number of entries to remove
+     * @return the removed entries in nondecreasing key order
+     * @throws IllegalArgumentException if k is negative
+     */
+    public List<Entry<K,V>> removeMin(int k) throws IllegalArgumentException {
+        if (k < 0) throw new IllegalArgumentException("Negative count");
+        List<Entry<K,V>> answer = new ArrayList<>();
+        drainTo(answer, k);
+        return answer;
+    }
+
+    /**
+     * Removes up to max due entries with minimal keys without waiting and
+     * adds them to the given collection in nondecreasing key order
+     * @param c    the collection to transfer entries into
+     * @param max  the maximum number of entries to transfer
+     * @return the number of entries transferred
+     * @throws IllegalArgumentException if c is null or max is negative
+     */
+    public int drainTo(Collection<? super Entry<K,V>> c, int max)
+                                    throws IllegalArgumentException {
+        if (c == null) throw new IllegalArgumentException("Null collection");
+        if (max < 0) throw new IllegalArgumentException("Negative count");
+        lock.lock();
+        try {
+            int count = 0;
+            if (dueTime == null)
+                count = queue.drainTo(c, max);
+            else {
+                Entry<K,V> first;
+                while (count < max && (first = queue.min()) != null
+                                   && delay(first) <= 0) {
+                    c.add(queue.removeMin());
+                    count++;
+                }
+            }
+            if (count > 0)
+                notFull.signalAll();
+            return count;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the entries, including those
+     * not yet due, in no particular order
+     * @return the iterator
+     */
+    public Iterator<Entry<K,V>> iterator() {
+        lock.lock();
+        try {
+            List<Entry<K,V>> snapshot = new ArrayList<>(queue.size());
+            queue.forEach(snapshot::add);
+            return Collections.unmodifiableList(snapshot).iterator();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        //Standby passengers whose boarding is delayed by their priority
+        BlockingPriorityQueue<Long,String> gate = new BlockingPriorityQueue<>(
+                new ArrayHeapPriorityQueue<Long,String>(), 10, key -> key);
+        long now = System.nanoTime();
+        Thread boarding = new Thread(() -> {
+            try {
+                for (int i = 0; i < 4; i++)
+                    System.out.println(gate.take().getValue() +
+                                       " boarded the plane");
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        boarding.start();
+        gate.put(now + TimeUnit.MILLISECONDS.toNanos(400), "Joe");
+        gate.put(now + TimeUnit.MILLISECONDS.toNanos(500), "Maria");
+        gate.put(now + TimeUnit.MILLISECONDS.toNanos(300), "Sally");
+        gate.put(now + TimeUnit.MILLISECONDS.toNanos(100), "Bob");
+        boarding.join();
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Interface for converting values to and from bytes, so that they can be
+ * stored outside the Java heap.
+ */
+public interface Codec<T> {
+
+    /**
+     * Writes a value at the buffer's position, advancing the position
+     * @param value  the value to be written (never null)
+     * @param out    the buffer to write into
+     * @throws java.nio.BufferOverflowException if the value does not fit
+     */
+    void encode(T value, ByteBuffer out);
+
+    /**
+     * Reads a value from the remaining bytes of a buffer
+     * @param in  the buffer holding exactly the bytes written by encode
+     * @return the value read
+     */
+    T decode(ByteBuffer in);
+
+    /** A codec storing strings as UTF-8 bytes. */
+    Codec<String> STRING = new Codec<String>() {
+        public void encode(String value, ByteBuffer out) {
+            out.put(value.getBytes(StandardCharsets.UTF_8));
+        }
+        public String decode(ByteBuffer in) {
+            byte[] bytes = new byte[in.remaining()];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /** A codec storing longs in eight bytes. */
+    Codec<Long> LONG = new Codec<Long>() {
+        public void encode(Long value, ByteBuffer out) { out.putLong(value); }
+        public Long decode(ByteBuffer in) { return in.getLong(); }
+    };
+}
@@ -0,0 +1,461 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * A thread-safe priority queue with two modes of operation.
+ * <p>
+ * In STRICT mode, insert never waits for the heap: new entries are pushed
+ * onto a lock-free pending list, and the thread that next locks the heap to
+ * read or remove its minimum merges them in (with heapify when the batch is
+ * large). Every removeMin returns a true minimum.
+ * <p>
+ * In RELAXED mode, entries are spread over several independently locked
+ * heaps. Insert uses whichever heap it can lock first, and removeMin
+ * compares the published minimums of two randomly chosen heaps and removes
+ * from the better one. Removed entries are then only approximately in key
+ * order, in exchange for throughput that scales with the number of threads.
+ */
+public class ConcurrentPriorityQueue<K,V> extends AbstractPriorityQueue<K,V> {
+
+    /** The ordering guarantees offered by a concurrent priority queue. */
+    public enum Mode {
+        /** removeMin always returns an entry with minimal key. */
+        STRICT,
+        /** removeMin returns the better of two sampled heap minimums. */
+        RELAXED
+    }
+
+    //---------------- nested EntryHeap and Shard classes ----------------
+    /** An array-based heap that stores entries it is given as they are. */
+    private static class EntryHeap<K,V> extends ArrayHeapPriorityQueue<K,V> {
+        EntryHeap(Comparator<K> comp) { super(comp); }
+        Entry<K,V> peek() { return (isEmpty() ? null : heap[0]); }
+        void offer(Entry<K,V> e) {
+            add(e);
+            upheap(size() - 1);
+        }
+        void offerAll(List<Entry<K,V>> batch) {
+            int oldSize = size();
+            for (Entry<K,V> e : batch)
+                add(e);
+            if (isBulk(batch.size(), size()))
+                heapify();
+            else
+                for (int j = oldSize; j < size(); j++)
+                    upheap(j);
+        }
+    }
+
+    /** One independently locked heap, publishing its minimum entry. */
+    private static class Shard<K,V> {
+        final ReentrantLock lock = new ReentrantLock();
+        final EntryHeap<K,V> heap;
+        volatile Entry<K,V> top;     // heap.peek() as of the last unlock
+        Shard(Comparator<K> comp) { heap = new EntryHeap<>(comp); }
+    }
+    //----------- end of nested EntryHeap and Shard classes -----------
+
+    private final Mode mode;
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // STRICT mode state
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentLinkedQueue<Entry<K,V>> pending =
+                                            new ConcurrentLinkedQueue<>();
+    private final EntryHeap<K,V> heap;
+
+    // RELAXED mode state
+    private final Shard<K,V>[] shards;
+
+    //constructors
+    public ConcurrentPriorityQueue() { this(Mode.STRICT); }
+    public ConcurrentPriorityQueue(Comparator<K> comp) {
+        this(Mode.STRICT, comp);
+    }
+    public ConcurrentPriorityQueue(Mode mode) {
+        this(mode, new DefaultComparator<K>());
+    }
+    public ConcurrentPriorityQueue(Mode mode, Comparator<K> comp) {
+        this(mode, 2 * Runtime.getRuntime().availableProcessors(), comp);
+    }
+    /**
+     * Creates an empty concurrent priority queue
+     * @param mode    the ordering guarantee of the queue
+     * @param shards  the number of heaps used in RELAXED mode
+     * @param comp    the comparator defining the ordering of keys
+     * @throws IllegalArgumentException if mode is null or shards is not positive
+     */
+    public ConcurrentPriorityQueue(Mode mode, int shards, Comparator<K> comp)
+                                    throws IllegalArgumentException {
+        super(comp);
+        if (mode == null) throw new IllegalArgumentException("Null mode");
+        if (shards < 1) throw new IllegalArgumentException("No shards");
+        this.mode = mode;
+        if (mode == Mode.STRICT) {
+            heap = new EntryHeap<>(comp);
+            this.shards = null;
+        }
+        else {
+            heap = null;
+            this.shards = newShards(shards);
+            for (int i = 0; i < shards; i++)
+                this.shards[i] = new Shard<>(comp);
+        }
+    }
+
+    /** Creates the array holding n shards. */
+    @SuppressWarnings("unchecked")
+    private static <K,V> Shard<K,V>[] newShards(int n) {
+        return (Shard<K,V>[]) new Shard<?,?>[n];
+    }
+
+    /**
+     * Sets the recorder notified of this queue's operations, including
+     * those of its internal heaps (null disables)
+     * @param recorder  the new recorder
+     */
+    public void setMetricsRecorder(MetricsRecorder recorder) {
+        super.setMetricsRecorder(recorder);
+        if (heap != null)
+            heap.setMetricsRecorder(recorder);
+        else
+            for (Shard<K,V> shard : shards)
+                shard.heap.setMetricsRecorder(recorder);
+    }
+
+    /**
+     * Sets the sort key cached in entries, for this queue and its internal
+     * heaps
+     * @param f  the sort key function (null disables)
+     * @throws IllegalStateException if the queue is not empty
+     */
+    public void setSortKey(ToLongFunction<? super K> f)
+                                    throws IllegalStateException {
+        super.setSortKey(f);
+        if (heap != null)
+            heap.setSortKey(f);
+        else
+            for (Shard<K,V> shard : shards)
+                shard.heap.setSortKey(f);
+    }
+
+    /**
+     * Makes entries with equal keys leave in the order inserted, for this
+     * queue and its internal heaps. Only STRICT mode honours the order, and
+     * the order of inserts racing in different threads is unspecified.
+     * @param stable  whether the queue is stable
+     * @throws IllegalStateException if the queue is not empty
+     */
+    public void setStable(boolean stable) throws IllegalStateException {
+        super.setStable(stable);
+        if (heap != null)
+            heap.setStable(stable);
+        else
+            for (Shard<K,V> shard : shards)
+                shard.heap.setStable(stable);
+    }
+
+    /** Returns the sequence number of a new entry, safely across threads. */
+    protected long nextSequence() { return sequence.getAndIncrement(); }
+
+    /**
+     * @return the ordering guarantee of this queue
+     */
+    public Mode getMode() { return mode; }
+
+    /**
+     * @return the number of entries in the queue, which may already be out
+     *         of date when other threads are modifying it
+     */
+    public int size() { return size.get(); }
+
+    /**
+     * Inserts a key-value pair and returns the entry created.
+     * @param key     the key of the new entry
+     * @param value   the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if key is not valid
+     */
+    public Entry<K,V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        metrics.recordInsert();
+        Entry<K,V> newest = newEntry(key, value);
+        int newSize = size.incrementAndGet();   // count first, so size never goes negative
+        metrics.recordSize(newSize);
+        if (mode == Mode.STRICT)
+            pending.offer(newest);
+        else {
+            Shard<K,V> shard = lockAnyShard();
+            try {
+                shard.heap.offer(newest);
+                shard.top = shard.heap.peek();
+            }
+            finally {
+                shard.lock.unlock();
+            }
+        }
+        return newest;
+    }
+
+    /**
+     * Returns (but does not remove) an entry with minimal key (if any). In
+     * RELAXED mode this is the best of the heap minimums published so far.
+     * @return the entry with minimal key
+     */
+    public Entry<K,V> min() {
+        if (mode == Mode.STRICT) {
+            lock.lock();
+            try {
+                mergePending();
+                return heap.min();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+        metrics.recordMin();
+        Entry<K,V> best = null;
+        for (Shard<K,V> shard : shards) {
+            Entry<K,V> top = shard.top;
+            if (top != null && (best == null || compare(top, best) < 0))
+                best = top;
+        }
+        return best;
+    }
+
+    /**
+     * Removes and returns an entry with minimal key (approximately minimal
+     * in RELAXED mode).
+     * @return the removed entry (or null if empty)
+     */
+    public Entry<K,V> removeMin() {
+        if (mode == Mode.STRICT) {
+            lock.lock();
+            try {
+                mergePending();
+                Entry<K,V> answer = heap.removeMin();
+                if (answer != null)
+                    size.decrementAndGet();
+                return answer;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+        while (true) {
+            Shard<K,V> shard = sampleShard();
+            if (shard == null)
+                return null;
+            shard.lock.lock();
+            try {
+                Entry<K,V> answer = shard.heap.removeMin();
+                shard.top = shard.heap.peek();
+                if (answer != null) {
+                    size.decrementAndGet();
+                    return answer;
+                }
+            }
+            finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes up to max entries with minimal keys and adds them to the given
+     * collection. In STRICT mode the batch is removed under a single
+     * acquisition of the lock.
+     * @param c    the collection to transfer entries into
+     * @param max  the maximum number of entries to transfer
+     * @return the number of entries transferred
+     * @throws IllegalArgumentException if c is null or max is negative
+     */
+    public int drainTo(Collection<? super Entry<K,V>> c, int max)
+                                    throws IllegalArgumentException {
+        if (mode == Mode.RELAXED)
+            return super.drainTo(c, max);
+        checkDrain(c, max);
+        lock.lock();
+        try {
+            mergePending();
+            int count = heap.drainTo(c, max);
+            size.addAndGet(-count);
+            return count;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the entries, in no particular
+     * order. Each heap is copied under its lock, so the snapshot reflects
+     * every operation completed before the call and perhaps some concurrent
+     * ones; the iterator never throws ConcurrentModificationException.
+     * @return the iterator
+     */
+    public Iterator<Entry<K,V>> iterator() {
+        List<Entry<K,V>> snapshot = new ArrayList<>(size());
+        if (mode == Mode.STRICT) {
+            lock.lock();
+            try {
+                mergePending();
+                heap.forEach(snapshot::add);
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+        else
+            for (Shard<K,V> shard : shards) {
+                shard.lock.lock();
+                try {
+                    shard.heap.forEach(snapshot::add);
+                }
+                finally {
+                    shard.lock.unlock();
+                }
+            }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    /** Moves entries from the pending list into the heap (lock is held). */
+    private void mergePending() {
+        Entry<K,V> e = pending.poll();
+        if (e == null) return;
+        List<Entry<K,V>> batch = new ArrayList<>();
+        do {
+            batch.add(e);
+            e = pending.poll();
+        } while (e != null);
+        if (batch.size() == 1)
+            heap.offer(batch.get(0));
+        else
+            heap.offerAll(batch);
+    }
+
+    /**
+     * Locks a shard for insertion, preferring any that is not contended
+     * @return the locked shard
+     */
+    private Shard<K,V> lockAnyShard() {
+        int start = ThreadLocalRandom.current().nextInt(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            Shard<K,V> shard = shards[(start + i) % shards.length];
+            if (shard.lock.tryLock())
+                return shard;
+        }
+        Shard<K,V> shard = shards[start];
+        shard.lock.lock();
+        return shard;
+    }
+
+    /**
+     * Chooses the shard to remove from: the better of two random shards, or
+     * any non-empty shard if both are empty
+     * @return the chosen shard (or null if every shard is empty)
+     */
+    private Shard<K,V> sampleShard() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Shard<K,V> a = shards[random.nextInt(shards.length)];
+        Shard<K,V> b = shards[random.nextInt(shards.length)];
+        Entry<K,V> topA = a.top;
+        Entry<K,V> topB = b.top;
+        if (topA != null && topB != null)
+            return (compare(topA, topB) <= 0 ? a : b);
+        if (topA != null) return a;
+        if (topB != null) return b;
+        int start = random.nextInt(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            Shard<K,V> shard = shards[(start + i) % shards.length];
+            if (shard.top != null)
+                return shard;
+        }
+        return null;
+    }
+
+    /**
+     * Measures the throughput of a workload of alternating inserts and
+     * removals on the queue with the given number of threads
+     * @param queue    the queue to be measured
+     * @param threads  the number of worker threads
+     * @param millis   how long to run the workload
+     * @return the number of operations per second
+     */
+    private static double throughput(PriorityQueue<Integer,Integer> queue,
+                                     int threads, long millis)
+                                     throws InterruptedException {
+        for (int i = 0; i < 10_000; i++)
+            queue.insert(ThreadLocalRandom.current().nextInt(), i);
+        long[] counts = new long[threads];
+        Thread[] workers = new Thread[threads];
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long ops = 0;
+                do {
+                    for (int i = 0; i < 128; i++) {
+                        queue.insert(random.nextInt(), id);
+                        queue.removeMin();
+                    }
+                    ops += 256;
+                } while (System.nanoTime() < deadline);
+                counts[id] = ops;
+            });
+            workers[t].start();
+        }
+        long total = 0;
+        for (int t = 0; t < threads; t++) {
+            workers[t].join();
+            total += counts[t];
+        }
+        return total * 1000.0 / millis;
+    }
+
+    /** A linked heap shared by locking every operation on its monitor. */
+    private static class SynchronizedHeap extends LinkedHeapPriorityQueue<Integer,Integer> {
+        public synchronized Entry<Integer,Integer> insert(Integer k, Integer v) {
+            return super.insert(k, v);
+        }
+        public synchronized Entry<Integer,Integer> removeMin() {
+            return super.removeMin();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        //Throughput of a hold workload from 1 to 64 threads (ops/second)
+        long millis = (args.length > 0 ? Long.parseLong(args[0]) : 1000);
+        System.out.printf("%8s %16s %16s %16s%n",
+                          "threads", "synchronized", "STRICT", "RELAXED");
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            double locked = throughput(new SynchronizedHeap(), threads, millis);
+            double strict = throughput(
+                    new ConcurrentPriorityQueue<Integer,Integer>(Mode.STRICT),
+                    threads, millis);
+            double relaxed = throughput(
+                    new ConcurrentPriorityQueue<Integer,Integer>(Mode.RELAXED),
+                    threads, millis);
+            System.out.printf("%8d %16.0f %16.0f %16.0f%n",
+                              threads, locked, strict, relaxed);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import jdk.jfr.FlightRecorder;
+
+/**
+ * A thread-safe metrics recorder that counts operations, comparisons and
+ * swaps and keeps histograms of sift distances. Its counters can be read as
+ * a snapshot, through JMX, or as periodic JFR events.
+ */
+public class CountingMetricsRecorder implements MetricsRecorder,
+                                                PriorityQueueStatsMXBean {
+
+    /** Number of histogram buckets; longer sifts count in the last one. */
+    public static final int HISTOGRAM_BUCKETS = 32;
+
+    /** Recorders whose counters are emitted as periodic JFR events. */
+    private static final List<CountingMetricsRecorder> flightRecorded =
+                                            new CopyOnWriteArrayList<>();
+    private static final Runnable flightRecorderHook = () -> {
+        for (CountingMetricsRecorder recorder : flightRecorded)
+            recorder.emitEvent();
+    };
+    private static boolean hookAdded = false;
+
+    private final String name;
+    private final LongAdder inserts = new LongAdder();
+    private final LongAdder removeMins = new LongAdder();
+    private final LongAdder mins = new LongAdder();
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder swaps = new LongAdder();
+    private final LongAccumulator maxSize = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray upheaps = new AtomicLongArray(HISTOGRAM_BUCKETS);
+    private final AtomicLongArray downheaps = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+    /**
+     * Creates a recorder with all counters at zero
+     * @param name  the name identifying the queue in JMX and JFR
+     */
+    public CountingMetricsRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the name identifying the queue in JMX and JFR
+     */
+    public String getName() { return name; }
+
+    // recording methods
+    public void recordInsert() { inserts.increment(); }
+    public void recordRemoveMin() { removeMins.increment(); }
+    public void recordMin() { mins.increment(); }
+    public void recordComparison() { comparisons.increment(); }
+    public void recordSwap() { swaps.increment(); }
+    public void recordUpheap(int levels) {
+        upheaps.incrementAndGet(Math.min(levels, HISTOGRAM_BUCKETS - 1));
+    }
+    public void recordDownheap(int levels) {
+        downheaps.incrementAndGet(Math.min(levels, HISTOGRAM_BUCKETS - 1));
+    }
+    public void recordSize(int size) { maxSize.accumulate(size); }
+
+    // PriorityQueueStatsMXBean methods
+    public long getInserts() { return inserts.sum(); }
+    public long getRemoveMins() { return removeMins.sum(); }
+    public long getMins() { return mins.sum(); }
+    public long getComparisons() { return comparisons.sum(); }
+    public long getSwaps() { return swaps.sum(); }
+    public int getMaxSize() { return (int) maxSize.get(); }
+    public long[] getUpheapHistogram() { return toArray(upheaps); }
+    public long[] getDownheapHistogram() { return toArray(downheaps); }
+
+    private static long[] toArray(AtomicLongArray histogram) {
+        long[] answer = new long[histogram.length()];
+        for (int i = 0; i < answer.length; i++)
+            answer[i] = histogram.get(i);
+        return answer;
+    }
+
+    /** Clears all counters. */
+    public void reset() {
+        inserts.reset();
+        removeMins.reset();
+        mins.reset();
+        comparisons.reset();
+        swaps.reset();
+        maxSize.reset();
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            upheaps.set(i, 0);
+            downheaps.set(i, 0);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the counters. Counters updated concurrently with
+     * the snapshot may or may not be included.
+     * @return the snapshot
+     */
+    public PriorityQueueStats snapshot() {
+        return new PriorityQueueStats(getInserts(), getRemoveMins(), getMins(),
+                getComparisons(), getSwaps(), getMaxSize(),
+                getUpheapHistogram(), getDownheapHistogram());
+    }
+
+    /**
+     * Registers this recorder with the platform MBean server
+     * @return the name it was registered under
+     * @throws JMException if the name is taken or cannot be registered
+     */
+    public ObjectName registerMBean() throws JMException {
+        ObjectName objectName = new ObjectName("io.github.khanht.trees:"
+                + "type=PriorityQueue,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /** Emits this recorder's counters as a periodic JFR event while recording. */
+    public void enableFlightRecorderEvents() {
+        synchronized (flightRecorded) {
+            if (!hookAdded) {
+                FlightRecorder.addPeriodicEvent(PriorityQueueStatsEvent.class,
+                                                flightRecorderHook);
+                hookAdded = true;
+            }
+            if (!flightRecorded.contains(this))
+                flightRecorded.add(this);
+        }
+    }
+
+    /** Stops emitting this recorder's counters as JFR events. */
+    public void disableFlightRecorderEvents() {
+        flightRecorded.remove(this);
+    }
+
+    /** Commits an event holding the current counters. */
+    private void emitEvent() {
+        PriorityQueueStatsEvent event = new PriorityQueueStatsEvent();
+        if (!event.isEnabled()) return;
+        PriorityQueueStats stats = snapshot();
+        event.queue = name;
+        event.inserts = stats.getInserts();
+        event.removeMins = stats.getRemoveMins();
+        event.mins = stats.getMins();
+        event.comparisons = stats.getComparisons();
+        event.swaps = stats.getSwaps();
+        event.maxSize = stats.getMaxSize();
+        event.meanUpheapLevels = stats.getMeanUpheapLevels();
+        event.meanDownheapLevels = stats.getMeanDownheapLevels();
+        event.commit();
+    }
+}
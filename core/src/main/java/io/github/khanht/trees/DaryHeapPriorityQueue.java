@@ -0,0 +1,137 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An implementation of a priority queue using an array-based d-ary heap, in
+ * which each entry has up to d children stored next to each other. A larger
+ * fan-out makes the heap shallower, so insert moves an entry through fewer
+ * levels, and each level of a removal scans one contiguous group of
+ * siblings instead of following pointers into different parts of memory.
+ */
+public class DaryHeapPriorityQueue<K,V> extends ArrayHeapPriorityQueue<K,V> {
+
+    /** The maximum number of children of an entry. */
+    private final int arity;
+
+    //constructors
+    public DaryHeapPriorityQueue(int arity) {
+        this(arity, new DefaultComparator<K>());
+    }
+    /**
+     * Creates an empty d-ary heap
+     * @param arity  the maximum number of children of an entry (at least 2)
+     * @param comp   the comparator defining the ordering of keys
+     * @throws IllegalArgumentException if arity is less than 2
+     */
+    public DaryHeapPriorityQueue(int arity, Comparator<K> comp)
+                                    throws IllegalArgumentException {
+        super(comp);
+        if (arity < 2) throw new IllegalArgumentException("Arity below 2");
+        this.arity = arity;
+    }
+    public DaryHeapPriorityQueue(int arity, K[] keys, V[] values) {
+        this(arity, keys, values, new DefaultComparator<K>());
+    }
+    public DaryHeapPriorityQueue(int arity, K[] keys, V[] values,
+                                 Comparator<K> comp) {
+        this(arity, comp);
+        if (keys.length != values.length)
+            throw new IllegalArgumentException("Keys and values differ in length");
+        List<Entry<K,V>> entries = new ArrayList<>(keys.length);
+        for (int j = 0; j < keys.length; j++)
+            entries.add(new PQEntry<>(keys[j], values[j]));
+        addAll(entries);
+    }
+    public DaryHeapPriorityQueue(int arity,
+                                 Iterable<? extends Entry<K,V>> entries) {
+        this(arity, entries, new DefaultComparator<K>());
+    }
+    public DaryHeapPriorityQueue(int arity,
+                                 Iterable<? extends Entry<K,V>> entries,
+                                 Comparator<K> comp) {
+        this(arity, comp);
+        addAll(entries);
+    }
+
+    /**
+     * @return the maximum number of children of an entry
+     */
+    public int getArity() { return arity; }
+
+    // protected utilities for navigating the heap by index; left and right
+    // give the first and last of the (up to) arity children of j
+    protected int parent(int j) { return (j-1) / arity; }
+    protected int left(int j) { return arity*j + 1; }
+    protected int right(int j) { return arity*j + arity; }
+
+    /**
+     * Finds the child of j with minimal key
+     * @param j  an index with at least one child
+     * @return the index of the smallest child
+     */
+    private int smallestChild(int j) {
+        int first = left(j);
+        int last = Math.min(right(j), size() - 1);
+        int smallest = first;
+        for (int c = first + 1; c <= last; c++)
+            if (compare(heap[c], heap[smallest]) < 0)
+                smallest = c;
+        return smallest;
+    }
+
+    /**
+     * Moves the entry at index j lower, if necessary, to maintain heap
+     * @param j  the index to start at
+     */
+    protected void downheap(int j) {
+        int levels = 0;
+        while (hasLeft(j)) {
+            int smallChildIndex = smallestChild(j);
+            if (compare(heap[smallChildIndex], heap[j]) >= 0)
+                break;
+            swap(j, smallChildIndex);
+            j = smallChildIndex;
+            levels++;
+        }
+        metrics.recordDownheap(levels);
+    }
+
+    /**
+     * Moves the entry at the root down to a leaf along the path of smallest
+     * children, then back up to its place
+     */
+    protected void downheapFromRoot() {
+        int j = 0;
+        int levels = 0;
+        while (hasLeft(j)) {
+            int child = smallestChild(j);
+            swap(j, child);
+            j = child;
+            levels++;
+        }
+        metrics.recordDownheap(levels);
+        upheap(j);
+    }
+
+    public static void main(String[] args) {
+        //Airline standby simulation with a 4-ary heap
+        DaryHeapPriorityQueue<Integer,String> heap =
+                                        new DaryHeapPriorityQueue<>(4);
+        heap.insert(4, "Joe");
+        heap.insert(5, "Maria");
+        heap.insert(3, "Sally");
+        heap.insert(1, "Bob");
+        heap.insert(2, "Ana");
+        heap.insert(6, "Li");
+        while (!heap.isEmpty())
+            System.out.println(heap.removeMin().getValue() +
+                               " boarded the plane");
+    }
+}
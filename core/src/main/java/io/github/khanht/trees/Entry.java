@@ -1,4 +1,4 @@
-package Assignment3;
+package io.github.khanht.trees;
 /*
  * From Data Structures and Algorithms in Java, Sixth Edition, Goodrich et al.
  */
@@ -0,0 +1,261 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * A priority queue shared by many tenants, which serves them by weighted
+ * fair queuing so that a tenant inserting more than its share cannot starve
+ * the others. The tenant of each value is given by a tenant function.
+ * <p>
+ * Each tenant with entries has its own heap, and a top-level adaptable heap
+ * orders the tenants by virtual time. removeMin serves the entry with
+ * minimal key of the tenant whose virtual time is least, then advances
+ * that tenant's virtual time by the inverse of its weight, so tenants that
+ * always have entries are served in proportion to their weights (1 unless
+ * set). A tenant that runs out of entries keeps its virtual time: when it
+ * inserts again it resumes at that time or the virtual time of the last
+ * entry served, whichever is later, so emptying its heap after each service
+ * earns it nothing. Ties go to the tenant that has waited longest.
+ * Both insert and removeMin take O(log t + log n) time for t tenants with
+ * entries.
+ * <p>
+ * Keys are therefore only in order within a tenant: removeMin, removeMin(k)
+ * and drainTo report entries in the order they are served, not in
+ * nondecreasing key order across tenants.
+ */
+public class FairPriorityQueue<K,V> extends AbstractPriorityQueue<K,V> {
+
+    //---------------- nested Tenant class ----------------
+    /** The heap and virtual time of a tenant with entries. */
+    private static class Tenant<K,V> {
+        private final Object id;
+        private final PriorityQueue<K,V> queue;
+        private double weight;
+        private double time;            // virtual time of its next service
+        private Entry<Double,Tenant<K,V>> entry;    // in the top-level heap
+        Tenant(Object id, PriorityQueue<K,V> queue, double weight, double time) {
+            this.id = id;
+            this.queue = queue;
+            this.weight = weight;
+            this.time = time;
+        }
+    }
+    //----------- end of nested Tenant class -----------
+
+    /** The tenants with entries, ordered by virtual time. */
+    private final HeapAdaptablePriorityQueue<Double,Tenant<K,V>> tenants =
+                                            new HeapAdaptablePriorityQueue<>();
+    /** Maps the id of each tenant with entries to the tenant. */
+    private final Map<Object,Tenant<K,V>> active = new HashMap<>();
+    /** The weights set for tenants, whether or not they have entries. */
+    private final Map<Object,Double> weights = new HashMap<>();
+    /** The virtual times of tenants without entries that are still ahead. */
+    private final Map<Object,Double> idle = new HashMap<>();
+    /** The number of idle tenants at which those now behind are dropped. */
+    private int pruneAt = 64;
+    private final Function<? super V,?> tenantOf;
+    private final PriorityQueueFactory.Kind kind;
+    private final Comparator<K> comp;
+    private int size = 0;
+    /** The virtual time of the last entry served. */
+    private double now = 0;
+
+    //constructors
+    public FairPriorityQueue(Function<? super V,?> tenantOf) {
+        this(tenantOf, new DefaultComparator<K>());
+    }
+    public FairPriorityQueue(Function<? super V,?> tenantOf, Comparator<K> comp) {
+        this(tenantOf, PriorityQueueFactory.Kind.LINKED, comp);
+    }
+    /**
+     * Creates an empty queue
+     * @param tenantOf  maps each value to the id of its tenant
+     * @param kind      the kind of heap kept for each tenant
+     * @param comp      the comparator defining the ordering of keys
+     * @throws IllegalArgumentException if tenantOf or kind is null
+     */
+    public FairPriorityQueue(Function<? super V,?> tenantOf,
+                             PriorityQueueFactory.Kind kind, Comparator<K> comp)
+                                    throws IllegalArgumentException {
+        super(comp);
+        if (tenantOf == null)
+            throw new IllegalArgumentException("Null tenant function");
+        if (kind == null) throw new IllegalArgumentException("Null kind");
+        this.tenantOf = tenantOf;
+        this.kind = kind;
+        this.comp = comp;
+        tenants.setStable(true);
+    }
+
+    /**
+     *
+     * @return size of the queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of tenants that have entries
+     */
+    public int activeTenants() {
+        return active.size();
+    }
+
+    /**
+     * @param tenant  the id of a tenant
+     * @return the weight of the tenant (1 unless set)
+     */
+    public double getWeight(Object tenant) {
+        return weights.getOrDefault(tenant, 1.0);
+    }
+
+    /**
+     * Sets the weight of a tenant, its share of service relative to the
+     * others; a tenant with entries uses it from its next service
+     * @param tenant  the id of a tenant
+     * @param weight  the new weight
+     * @throws IllegalArgumentException if weight is not positive and finite
+     */
+    public void setWeight(Object tenant, double weight)
+                                    throws IllegalArgumentException {
+        if (!(weight > 0) || Double.isInfinite(weight))
+            throw new IllegalArgumentException("Weight not positive");
+        weights.put(tenant, weight);
+        Tenant<K,V> t = active.get(tenant);
+        if (t != null)
+            t.weight = weight;
+    }
+
+    /** Creates the heap of a tenant, configured like this queue. */
+    private PriorityQueue<K,V> newQueue() {
+        PriorityQueue<K,V> queue = PriorityQueueFactory.create(kind, comp);
+        if (queue instanceof AbstractPriorityQueue) {
+            AbstractPriorityQueue<K,V> q = (AbstractPriorityQueue<K,V>) queue;
+            q.setSortKey(getSortKey());
+            q.setStable(isStable());
+        }
+        return queue;
+    }
+
+    /**
+     * Inserts a key-value pair into the heap of the value's tenant and
+     * returns the entry created.
+     * @param key     the key of the new entry
+     * @param value   the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if key is not valid
+     */
+    public Entry<K,V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        metrics.recordInsert();
+        Object id = tenantOf.apply(value);
+        Tenant<K,V> t = active.get(id);
+        if (t == null) {
+            Double time = idle.remove(id);
+            double start = (time == null ? now : Math.max(now, time));
+            t = new Tenant<>(id, newQueue(), getWeight(id), start);
+            t.entry = tenants.insert(start, t);
+            active.put(id, t);
+        }
+        Entry<K,V> newest = t.queue.insert(key, value);
+        size++;
+        metrics.recordSize(size);
+        return newest;
+    }
+
+    /**
+     * Returns (but does not remove) the entry that removeMin would serve next
+     * @return the entry with minimal key of the next tenant (or null if empty)
+     */
+    public Entry<K,V> min() {
+        metrics.recordMin();
+        if (size == 0) return null;
+        return tenants.min().getValue().queue.min();
+    }
+
+    /**
+     * Removes and returns the entry with minimal key of the tenant whose
+     * virtual time is least, advancing that tenant's virtual time.
+     * @return the removed entry (or null if empty)
+     */
+    public Entry<K,V> removeMin() {
+        metrics.recordRemoveMin();
+        if (size == 0) return null;
+        Tenant<K,V> t = tenants.min().getValue();
+        Entry<K,V> answer = t.queue.removeMin();
+        now = t.time;
+        t.time += 1 / t.weight;
+        if (t.queue.isEmpty()) {
+            tenants.remove(t.entry);
+            active.remove(t.id);
+            idle.put(t.id, t.time);
+            if (idle.size() >= pruneAt)
+                pruneIdle();
+        }
+        else
+            tenants.replaceKey(t.entry, t.time);
+        size--;
+        return answer;
+    }
+
+    /**
+     * Forgets idle tenants whose virtual time has fallen behind, as they
+     * would resume at the current virtual time anyway. The next prune waits
+     * until the idle tenants have doubled, so pruning takes amortized O(1)
+     * time per removal.
+     */
+    private void pruneIdle() {
+        idle.values().removeIf(time -> time <= now);
+        pruneAt = Math.max(64, 2 * idle.size());
+    }
+
+    /**
+     * Returns an iterator over the entries, tenant by tenant
+     * @return the iterator
+     */
+    public Iterator<Entry<K,V>> iterator() {
+        return new Iterator<Entry<K,V>>() {
+            private final Iterator<Tenant<K,V>> rest = active.values().iterator();
+            private Iterator<Entry<K,V>> current = Collections.emptyIterator();
+
+            public boolean hasNext() {
+                while (!current.hasNext() && rest.hasNext())
+                    current = rest.next().queue.iterator();
+                return current.hasNext();
+            }
+
+            public Entry<K,V> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return current.next();
+            }
+        };
+    }
+
+    public static void main(String[] args) {
+        //A tour group and two other passengers share the standby list; the
+        //group counts as one tenant, and first class counts double
+        FairPriorityQueue<Integer,String> standby =
+                new FairPriorityQueue<>(v -> v.substring(0, v.indexOf(':')));
+        standby.setWeight("first", 2);
+        standby.setStable(true);
+        for (String name : new String[] {"Joe", "Maria", "Sally", "Ann", "Tom"})
+            standby.insert(1, "tour:" + name);
+        standby.insert(3, "economy:Bob");
+        standby.insert(2, "first:Kim");
+        standby.insert(4, "first:Lee");
+        while (!standby.isEmpty())
+            System.out.println(standby.removeMin().getValue() +
+                               " boarded the plane");
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.Comparator;
+
+/** An implementation of an adaptable priority queue using an array-based heap. */
+public class HeapAdaptablePriorityQueue<K,V> extends ArrayHeapPriorityQueue<K,V>
+                                    implements AdaptablePriorityQueue<K,V> {
+    //---------------- nested AdaptablePQEntry class ----------------
+    /** Extension of the PQEntry to include location information. */
+    protected static class AdaptablePQEntry<K,V> extends PQEntry<K,V> {
+        private int index; // entry's current index within the heap
+        public AdaptablePQEntry(K key, V value, int j) {
+            super(key, value);
+            index = j;
+        }
+        public int getIndex() { return index; }
+        public void setIndex(int j) { index = j; }
+    }
+    //----------- end of nested AdaptablePQEntry class -----------
+
+    //constructors
+    public HeapAdaptablePriorityQueue() { super(); }
+    public HeapAdaptablePriorityQueue(Comparator<K> comp) { super(comp); }
+    public HeapAdaptablePriorityQueue(K[] keys, V[] values) {
+        super(keys, values);
+    }
+    public HeapAdaptablePriorityQueue(K[] keys, V[] values, Comparator<K> comp) {
+        super(keys, values, comp);
+    }
+    public HeapAdaptablePriorityQueue(Iterable<? extends Entry<K,V>> entries) {
+        super(entries);
+    }
+    public HeapAdaptablePriorityQueue(Iterable<? extends Entry<K,V>> entries,
+                                      Comparator<K> comp) {
+        super(entries, comp);
+    }
+
+    /**
+     * Validates an entry to ensure it is location-aware and still in the heap
+     * @param entry  the entry to be validated
+     * @return the entry as a location-aware entry
+     * @throws IllegalArgumentException if entry is not valid
+     */
+    protected AdaptablePQEntry<K,V> validate(Entry<K,V> entry)
+                                    throws IllegalArgumentException {
+        if (!(entry instanceof AdaptablePQEntry))
+            throw new IllegalArgumentException("Invalid entry");
+        AdaptablePQEntry<K,V> locator = (AdaptablePQEntry<K,V>) entry;
+        int j = locator.getIndex();
+        if (j < 0 || j >= size() || heap[j] != locator)
+            throw new IllegalArgumentException("Invalid entry");
+        return locator;
+    }
+
+    /**
+     * Exchanges the entries at indices i and j, updating their locations
+     * @param i  first index
+     * @param j  second index
+     */
+    protected void swap(int i, int j) {
+        super.swap(i, j);
+        ((AdaptablePQEntry<K,V>) heap[i]).setIndex(i);
+        ((AdaptablePQEntry<K,V>) heap[j]).setIndex(j);
+    }
+
+    /**
+     * Restores the heap property by moving the entry at index j upward or
+     * downward
+     * @param j  the index of the entry
+     */
+    protected void bubble(int j) {
+        if (j > 0 && compare(heap[j], heap[parent(j)]) < 0)
+            upheap(j);
+        else
+            downheap(j);
+    }
+
+    /**
+     * Factory function to create a location-aware entry for the next free
+     * index of the heap.
+     * @param key    the key of the new entry
+     * @param value  the value of the new entry
+     * @return the new entry
+     */
+    protected Entry<K,V> createEntry(K key, V value) {
+        return initEntry(new AdaptablePQEntry<>(key, value, size()));
+    }
+
+    /**
+     * Removes the entry at the end of the heap, marking it as removed
+     * @return the removed entry
+     */
+    protected Entry<K,V> removeLast() {
+        Entry<K,V> last = super.removeLast();
+        ((AdaptablePQEntry<K,V>) last).setIndex(-1);
+        return last;
+    }
+
+    /**
+     * Removes the given entry from the priority queue
+     * @param entry  an entry of this priority queue
+     * @throws IllegalArgumentException if entry is not valid
+     */
+    public void remove(Entry<K,V> entry) throws IllegalArgumentException {
+        AdaptablePQEntry<K,V> locator = validate(entry);
+        int j = locator.getIndex();
+        int last = size() - 1;
+        if (j != last) {
+            swap(j, last);
+            removeLast();
+            bubble(j);
+        }
+        else
+            removeLast();
+    }
+
+    /**
+     * Replaces the key of an entry
+     * @param entry  an entry of this priority queue
+     * @param key    the new key
+     * @throws IllegalArgumentException if entry or key is not valid
+     */
+    public void replaceKey(Entry<K,V> entry, K key)
+                                    throws IllegalArgumentException {
+        AdaptablePQEntry<K,V> locator = validate(entry);
+        checkKey(key);
+        setKey(locator, key);
+        modCount++;
+        bubble(locator.getIndex());
+    }
+
+    /**
+     * Replaces the value of an entry
+     * @param entry  an entry of this priority queue
+     * @param value  the new value
+     * @throws IllegalArgumentException if entry is not valid
+     */
+    public void replaceValue(Entry<K,V> entry, V value)
+                                    throws IllegalArgumentException {
+        AdaptablePQEntry<K,V> locator = validate(entry);
+        locator.setValue(value);
+    }
+
+    public static void main(String[] args) {
+        //Airline standby simulation with upgrades and cancellations
+        HeapAdaptablePriorityQueue<Integer,String> heap =
+                                    new HeapAdaptablePriorityQueue<>();
+        heap.insert(4, "Joe");
+        Entry<Integer,String> maria = heap.insert(5, "Maria");
+        Entry<Integer,String> sally = heap.insert(3, "Sally");
+        heap.insert(1, "Bob");
+        //Maria is upgraded ahead of everyone and Sally cancels
+        heap.replaceKey(maria, 0);
+        heap.remove(sally);
+        while (!heap.isEmpty())
+            System.out.println(heap.removeMin().getValue() +
+                               " boarded the plane");
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntSupplier;
+
+/**
+ * An iterator reporting the entries of a heap-ordered tree in key order
+ * without changing the tree. Only the children of entries already reported
+ * are candidates for the next one, and they are kept in a small heap of
+ * their own, so the first k entries take O(k log k) time however large the
+ * tree is. Modifying the tree during iteration fails fast.
+ * @param <N>  the type of the tree's nodes
+ */
+abstract class HeapOrderIterator<K,V,N> implements Iterator<Entry<K,V>> {
+    private final ArrayHeapPriorityQueue<Entry<K,V>,N> candidates;
+    private final IntSupplier modCount;
+    private final int expectedModCount;
+
+    /**
+     * Creates an iterator with no candidates
+     * @param comp      the comparator ordering the entries of the tree
+     * @param modCount  the tree's count of structural modifications
+     */
+    protected HeapOrderIterator(Comparator<Entry<K,V>> comp,
+                                IntSupplier modCount) {
+        candidates = new ArrayHeapPriorityQueue<>(comp);
+        this.modCount = modCount;
+        expectedModCount = modCount.getAsInt();
+    }
+
+    /** Returns the entry stored at a node. */
+    protected abstract Entry<K,V> entryOf(N node);
+
+    /** Offers each child of a node by calling offer. */
+    protected abstract void offerChildren(N node);
+
+    /**
+     * Makes a node a candidate; called with the root, then by offerChildren
+     * @param node  the node to be offered
+     */
+    protected void offer(N node) {
+        candidates.insert(entryOf(node), node);
+    }
+
+    private void checkForComodification() {
+        if (modCount.getAsInt() != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+
+    public boolean hasNext() {
+        checkForComodification();
+        return !candidates.isEmpty();
+    }
+
+    public Entry<K,V> next() {
+        checkForComodification();
+        Entry<Entry<K,V>,N> best = candidates.removeMin();
+        if (best == null) throw new NoSuchElementException();
+        offerChildren(best.getValue());
+        return best.getKey();
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * An adaptable priority queue that holds each value at most once and can
+ * find the entry of a value in expected constant time. Values are told
+ * apart by an id, which is the value itself unless an id function is given.
+ * <p>
+ * The hash index maps ids to the location-aware entries of the heap, which
+ * already know their own index, so swaps cost nothing extra; only adding
+ * and removing an entry touch the index.
+ */
+public class IndexedPriorityQueue<K,V> extends HeapAdaptablePriorityQueue<K,V> {
+
+    /** Maps the id of each queued value to its entry. */
+    private final Map<Object,Entry<K,V>> index = new HashMap<>();
+    private final Function<? super V,?> id;
+
+    //constructors
+    public IndexedPriorityQueue() { this(v -> v); }
+    public IndexedPriorityQueue(Comparator<K> comp) { this(v -> v, comp); }
+    public IndexedPriorityQueue(Function<? super V,?> id) {
+        super();
+        if (id == null) throw new IllegalArgumentException("Null id function");
+        this.id = id;
+    }
+    public IndexedPriorityQueue(Function<? super V,?> id, Comparator<K> comp) {
+        super(comp);
+        if (id == null) throw new IllegalArgumentException("Null id function");
+        this.id = id;
+    }
+
+    /**
+     * Appends an entry at the end of the heap, indexing its value
+     * @param e  the entry to be appended
+     * @throws IllegalArgumentException if the value is already queued
+     */
+    protected void add(Entry<K,V> e) throws IllegalArgumentException {
+        ensureCapacity(size() + 1);
+        if (index.putIfAbsent(id.apply(e.getValue()), e) != null)
+            throw new IllegalArgumentException("Value already queued");
+        super.add(e);
+    }
+
+    /**
+     * Removes the entry at the end of the heap and its value from the index
+     * @return the removed entry
+     */
+    protected Entry<K,V> removeLast() {
+        Entry<K,V> last = super.removeLast();
+        index.remove(id.apply(last.getValue()));
+        return last;
+    }
+
+    /**
+     * Returns the entry holding the given value (if any)
+     * @param value  the value to look for
+     * @return the entry of the value (or null if it is not queued)
+     */
+    public Entry<K,V> getEntry(V value) {
+        return index.get(id.apply(value));
+    }
+
+    /**
+     * @param value  the value to look for
+     * @return true if the value is queued
+     */
+    public boolean containsValue(V value) {
+        return index.containsKey(id.apply(value));
+    }
+
+    /**
+     * Returns the key of the given value (if any)
+     * @param value  the value to look for
+     * @return the key of the value (or null if it is not queued)
+     */
+    public K getKey(V value) {
+        Entry<K,V> e = getEntry(value);
+        return (e == null ? null : e.getKey());
+    }
+
+    /**
+     * Inserts a value, or lowers its key if it is already queued with a
+     * greater key. A queued value whose key is not greater is left as is.
+     * @param value  the value to be queued
+     * @param key    the key wanted for the value
+     * @return the entry of the value
+     * @throws IllegalArgumentException if key is not valid
+     */
+    public Entry<K,V> insertOrDecrease(V value, K key)
+                                    throws IllegalArgumentException {
+        Entry<K,V> existing = getEntry(value);
+        if (existing == null)
+            return insert(key, value);
+        checkKey(key);
+        if (compareKeys(key, existing.getKey()) < 0)
+            replaceKey(existing, key);
+        return existing;
+    }
+
+    /**
+     * Replaces the value of an entry, moving it to the id of the new value
+     * @param entry  an entry of this priority queue
+     * @param value  the new value
+     * @throws IllegalArgumentException if entry is not valid or the new
+     * value is already queued in another entry
+     */
+    public void replaceValue(Entry<K,V> entry, V value)
+                                    throws IllegalArgumentException {
+        AdaptablePQEntry<K,V> locator = validate(entry);
+        Object oldId = id.apply(locator.getValue());
+        Object newId = id.apply(value);
+        Entry<K,V> other = index.get(newId);
+        if (other != null && other != locator)
+            throw new IllegalArgumentException("Value already queued");
+        index.remove(oldId);
+        index.put(newId, locator);
+        locator.setValue(value);
+    }
+
+    public static void main(String[] args) {
+        //Airline standby where passengers may ask to be listed again
+        IndexedPriorityQueue<Integer,String> heap = new IndexedPriorityQueue<>();
+        heap.insert(4, "Joe");
+        heap.insert(5, "Maria");
+        heap.insert(3, "Sally");
+        //Maria asks again with a better priority; Joe's worse request is ignored
+        heap.insertOrDecrease("Maria", 2);
+        heap.insertOrDecrease("Joe", 6);
+        heap.insertOrDecrease("Bob", 1);
+        System.out.println("Is Sally listed? " + heap.containsValue("Sally"));
+        System.out.println("Joe's priority: " + heap.getKey("Joe"));
+        while (!heap.isEmpty())
+            System.out.println(heap.removeMin().getValue() +
+                               " boarded the plane");
+    }
+}
@@ -0,0 +1,671 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Concrete implementation of a binary tree using a node-based, linked structure.
+ * <p>
+ * In recycling mode the tree keeps the nodes of removed positions and reuses
+ * them for later additions, so a tree that grows and shrinks allocates
+ * nothing once it has reached its largest size. The contract of the mode
+ * is that a removed position must not be used again: once its node is
+ * reused it is a valid position of the tree once more, holding another
+ * element, and validate cannot tell the difference.
+ */
+public class LinkedBinaryTree<E> extends AbstractBinaryTree<E> {
+    //---------------- nested Node class ----------------
+    protected static class Node<E> implements Position<E> {
+        private E element;
+        private Node<E>  parent;
+        private Node<E> left;
+        private Node<E> right;
+        
+        public Node(E e, Node<E> above, Node<E> leftChild, Node<E> rightChild) {
+            element = e;
+            parent = above;
+            left = leftChild;
+            right = rightChild;
+        }
+        // accessor methods
+        public E getElement() { return element; }
+        public Node<E> getParent() { return parent; }
+        public Node<E> getLeft()  { return left; }
+        public Node<E> getRight()    { return right; }
+        // update methods
+        public void setElement(E e) { element = e; }
+        public void setParent(Node<E> parentNode) { parent = parentNode; }
+        public void setLeft(Node<E> leftChild) { left = leftChild; }
+        public void setRight(Node<E> rightChild) { right = rightChild; }
+        }//----------- end of nested Node class -----------
+    
+    /**
+     * Factory function to create a new node storing element e, reusing the
+     * node of a removed position when recycling.
+     */
+    protected Node<E> createNode(E e, Node<E> parent, Node<E> left, Node<E> right) {
+        Node<E> node = spareNodes;
+        if (node == null)
+            return new Node<E> (e, parent, left, right);
+        spareNodes = node.getLeft();
+        node.setElement(e);
+        node.setParent(parent);
+        node.setLeft(left);
+        node.setRight(right);
+        return node;
+    }
+    
+    // LinkedBinaryTree instance variables
+    protected Node<E> root = null;
+    private int size = 0;
+    /** The number of structural changes, for failing iterators fast. */
+    protected int modCount = 0;
+    /** Whether the nodes of removed positions are kept for reuse. */
+    private boolean recycling = false;
+    /** The nodes of removed positions, linked through their left child. */
+    private Node<E> spareNodes = null;
+    
+    public LinkedBinaryTree() {}
+    
+    /** 
+     * Validates the position and returns it as a node. 
+     * @param p  a position of the list
+     * @return the position as node
+     * @throws IllegalArgumentException if position is not valid
+     */
+    protected Node<E> validate(Position<E> p) throws IllegalArgumentException {
+        if (!(p instanceof Node))
+            throw new IllegalArgumentException("Not valid position type");
+        Node<E> node = (Node<E>) p;
+        if (node.getParent() == node)
+            throw new IllegalArgumentException("p is no longer in the tree");
+        return node;
+    }
+    
+    /**
+     * @return the size of linked binary tree
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * @return true if the nodes of removed positions are reused
+     */
+    public boolean isRecycling() { return recycling; }
+    
+    /**
+     * Turns recycling of the nodes of removed positions on or off; turning
+     * it off releases the nodes kept for reuse. See the class comment for
+     * the contract on removed positions.
+     * @param recycling  whether to recycle
+     */
+    public void setRecycling(boolean recycling) {
+        this.recycling = recycling;
+        if (!recycling)
+            spareNodes = null;
+    }
+    
+    /**
+     * @return the root of the tree
+     */
+    public Position<E> root() {
+        return root;
+    }
+    
+    /**
+     * Get the parent of given position
+     * @param p  the position given
+     * @return the position of the parent
+     * @throws IllegalArgumentException if position is not valid
+     */
+    public Position<E> parent(Position<E> p) throws IllegalArgumentException {
+        Node<E> node = validate(p);
+        return node.getParent();
+    }
+    
+    /**
+     * Get the left child of given position
+     * @param p  the position given
+     * @return the position of the left child
+     * @throws IllegalArgumentException if position is not valid
+     */
+    public Position<E> left(Position<E> p) throws IllegalArgumentException {
+        Node<E> node = validate(p);
+        return node.getLeft();
+    }
+    
+    /**
+     * Get the right child of given position
+     * @param p  the position given
+     * @return the position of right child
+     * @throws IllegalArgumentException if position is not valid
+     */
+    public Position<E> right(Position<E> p) throws IllegalArgumentException {
+        Node<E> node = validate(p);
+        return node.getRight();
+    }
+    
+    /**
+     * Add a new root position
+     * @param e  the element assigned to position
+     * @return the position of root
+     * @throws IllegalStateException 
+     */
+    public Position<E> addRoot(E e) throws IllegalStateException {
+        if (!isEmpty()) throw new IllegalStateException("Tree is not empty");
+        root = createNode(e, null, null, null);
+        size = 1;
+        modCount++;
+        return root;
+    }
+    
+    /**
+     * Add left child to given position
+     * @param p  position to add child to
+     * @param e  element assigned to child
+     * @return the position of new child
+     * @throws IllegalStateException 
+     */
+    public Position<E> addLeft(Position<E> p, E e) throws IllegalStateException {
+        Node<E> parent = validate(p);
+        if (parent.getLeft() !=null)
+            throw new IllegalArgumentException("p already has a left child");
+        Node<E> child = createNode(e, parent, null, null);
+        parent.setLeft(child);
+        size++;
+        modCount++;
+        return child;
+    }
+    
+    /**
+     * Add right child to given position
+     * @param p  position to add child to
+     * @param e  element assigned to child
+     * @return the position of new child
+     * @throws IllegalStateException 
+     */
+    public Position<E> addRight(Position<E> p, E e) throws IllegalStateException {
+        Node<E> parent = validate(p);
+        if (parent.getRight() !=null)
+            throw new IllegalArgumentException("p already has a right child");
+        Node<E> child = createNode(e, parent, null, null);
+        parent.setRight(child);
+        size++;
+        modCount++;
+        return child;
+    }
+    
+    /**
+     * Replace element at given position
+     * @param p  position to be affected
+     * @param e  the new element
+     * @return the old element
+     * @throws IllegalArgumentException if position is not valid
+     */
+    public E set(Position<E> p, E e) throws IllegalArgumentException {
+        Node<E> node = validate(p);
+        E temp = node.getElement();
+        node.setElement(e);
+        return temp;
+    }
+    
+    /**
+     * Attach subtrees to given position
+     * @param p   position to be affected
+     * @param t1  the left subtree to be attached
+     * @param t2  the right subtree to be attached
+     * @throws IllegalArgumentException if position is not valid
+     */
+    public void attach(Position<E> p, LinkedBinaryTree<E> t1,
+                        LinkedBinaryTree<E> t2) throws IllegalArgumentException {
+        Node<E> node = validate(p);
+        if (isInternal(p)) throw new IllegalArgumentException("p must be a leaf");
+        size += t1.size() + t2.size();
+        modCount++;
+        if (!t1.isEmpty()) {
+            t1.root.setParent(node);
+            node.setLeft(t1.root);
+            t1.root = null;
+            t1.size = 0;
+            t1.modCount++;
+        }
+        if (!t2.isEmpty()) {
+            t2.root.setParent(node);
+            node.setRight(t2.root);
+            t2.root = null;
+            t2.size = 0;
+            t2.modCount++;
+        }
+    }
+    
+    /**
+     * Remove the given position
+     * @param p  position to be removed
+     * @return the the element of removed position
+     * @throws IllegalArgumentException if position is not valid
+     */
+    public E remove(Position<E> p) throws IllegalArgumentException {
+        Node<E> node = validate(p);
+        if (numChildren(p) == 2)
+            throw new IllegalArgumentException("p has two children");
+        Node<E> child = (node.getLeft() != null ? node.getLeft() : node.getRight());
+        if (child != null)
+            child.setParent(node.getParent());
+        if (node == root)
+            root = child;
+        else {
+            Node<E> parent = node.getParent();
+            if (node == parent.getLeft())
+                parent.setLeft(child);
+            else
+                parent.setRight(child);
+        }
+        size--;
+        modCount++;
+        E temp = node.getElement();
+        node.setElement(null);
+        node.setLeft(null);
+        node.setRight(null);
+        node.setParent(node);
+        if (recycling) {
+            node.setLeft(spareNodes);
+            spareNodes = node;
+        }
+        return temp;
+    }
+    
+    //The following are used to create an iterator
+    private class ElementIterator implements Iterator<E> {
+        Iterator<Position<E>> posIterator = positions().iterator();
+        public boolean hasNext() { return posIterator.hasNext(); }
+        public E next() { return posIterator.next().getElement(); }
+        public void remove() { posIterator.remove(); }
+    }
+    
+    public Iterator<E> iterator() { return new ElementIterator(); }
+   
+    public Iterable<Position<E>> positions() { return preorder(); }
+    
+    //---------------- nested NodeIterator classes ----------------
+    /**
+     * An iterator that walks the tree through parent and child links, with
+     * no recursion and no allocation per node. Any structural change to the
+     * tree after the iterator is created makes it fail fast.
+     */
+    private abstract class NodeIterator implements Iterator<Position<E>> {
+        private Node<E> next;
+        private final int expectedModCount = modCount;
+        
+        NodeIterator(Node<E> first) { next = first; }
+        
+        /** Returns the node visited after the given one (or null). */
+        protected abstract Node<E> successor(Node<E> node);
+        
+        public boolean hasNext() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return next != null;
+        }
+        
+        public Position<E> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Node<E> current = next;
+            next = successor(current);
+            return current;
+        }
+    }
+    
+    private class PreorderIterator extends NodeIterator {
+        PreorderIterator() { super(root); }
+        protected Node<E> successor(Node<E> node) {
+            return preorderNext(node, root);
+        }
+    }
+    
+    private class InorderIterator extends NodeIterator {
+        InorderIterator() { super(leftmost(root)); }
+        protected Node<E> successor(Node<E> node) {
+            if (node.getRight() != null) return leftmost(node.getRight());
+            // climb until we leave a left child
+            for (; node != root; node = node.getParent())
+                if (node == node.getParent().getLeft())
+                    return node.getParent();
+            return null;
+        }
+    }
+    
+    private class PostorderIterator extends NodeIterator {
+        PostorderIterator() { super(firstPostorder(root)); }
+        protected Node<E> successor(Node<E> node) {
+            if (node == root) return null;
+            Node<E> parent = node.getParent();
+            if (node == parent.getLeft() && parent.getRight() != null)
+                return firstPostorder(parent.getRight());
+            return parent;
+        }
+    }
+    
+    /**
+     * An iterator visiting the tree level by level. Its queue holds at most
+     * two levels of the tree and is the only allocation.
+     */
+    private class BreadthFirstIterator implements Iterator<Position<E>> {
+        private final ArrayDeque<Node<E>> fringe = new ArrayDeque<>();
+        private final int expectedModCount = modCount;
+        
+        BreadthFirstIterator() { if (root != null) fringe.add(root); }
+        
+        public boolean hasNext() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return !fringe.isEmpty();
+        }
+        
+        public Position<E> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Node<E> current = fringe.remove();
+            if (current.getLeft() != null) fringe.add(current.getLeft());
+            if (current.getRight() != null) fringe.add(current.getRight());
+            return current;
+        }
+    }
+    //----------- end of nested NodeIterator classes -----------
+    
+    /**
+     * Returns the node visited after node in a preorder walk of the subtree
+     * rooted at top
+     * @param node  a node of the subtree
+     * @param top   the root of the subtree
+     * @return the next node (or null if node is the last)
+     */
+    private static <E> Node<E> preorderNext(Node<E> node, Node<E> top) {
+        if (node.getLeft() != null) return node.getLeft();
+        if (node.getRight() != null) return node.getRight();
+        // climb until we leave a left child that has a right sibling
+        for (; node != top; node = node.getParent()) {
+            Node<E> parent = node.getParent();
+            if (node == parent.getLeft() && parent.getRight() != null)
+                return parent.getRight();
+        }
+        return null;
+    }
+    
+    /** Returns the leftmost node of the subtree rooted at node (or null). */
+    private Node<E> leftmost(Node<E> node) {
+        if (node != null)
+            while (node.getLeft() != null)
+                node = node.getLeft();
+        return node;
+    }
+    
+    /** Returns the first node of the subtree rooted at node in postorder. */
+    private Node<E> firstPostorder(Node<E> node) {
+        if (node != null)
+            while (node.getLeft() != null || node.getRight() != null)
+                node = (node.getLeft() != null ? node.getLeft() : node.getRight());
+        return node;
+    }
+    
+    /**
+     * @return the positions of the tree in preorder, visited lazily
+     */
+    public Iterable<Position<E>> preorder() {
+        return () -> new PreorderIterator();
+    }
+    
+    /**
+     * @return the positions of the tree in inorder, visited lazily
+     */
+    public Iterable<Position<E>> inorder() {
+        return () -> new InorderIterator();
+    }
+    
+    /**
+     * @return the positions of the tree in postorder, visited lazily
+     */
+    public Iterable<Position<E>> postorder() {
+        return () -> new PostorderIterator();
+    }
+    
+    /**
+     * @return the positions of the tree level by level, visited lazily
+     */
+    public Iterable<Position<E>> breadthfirst() {
+        return () -> new BreadthFirstIterator();
+    }
+    
+    //---------------- nested fork/join task classes ----------------
+    /**
+     * Largest number of nested splits of one task; beyond it, and whenever
+     * the worker already has enough queued tasks, subtrees are processed
+     * sequentially.
+     */
+    private static final int MAX_SPLITS = 48;
+    private static final int SURPLUS_LIMIT = 3;
+    
+    /** Decides whether a task at the given number of splits should split. */
+    private static boolean shouldSplit(int splits) {
+        return splits < MAX_SPLITS
+            && ForkJoinTask.getSurplusQueuedTaskCount() <= SURPLUS_LIMIT;
+    }
+    
+    /**
+     * Summarizes a subtree. A chain of nodes with one child is folded while
+     * descending to the first node with two children, whose right subtree is
+     * forked and left subtree computed in place.
+     */
+    private static class SummaryTask<E,R> extends RecursiveTask<TreeSummary<R>> {
+        private static final long serialVersionUID = 1L;
+        private final Node<E> top;
+        private final int splits;
+        private final Function<? super E, ? extends R> mapper;
+        private final BinaryOperator<R> combiner;
+        
+        SummaryTask(Node<E> top, int splits,
+                    Function<? super E, ? extends R> mapper,
+                    BinaryOperator<R> combiner) {
+            this.top = top;
+            this.splits = splits;
+            this.mapper = mapper;
+            this.combiner = combiner;
+        }
+        
+        private R fold(R value, boolean empty, R next) {
+            return (empty ? next : combiner.apply(value, next));
+        }
+        
+        protected TreeSummary<R> compute() {
+            if (top == null) return new TreeSummary<>(0, -1, null);
+            if (!shouldSplit(splits)) return sequential();
+            Node<E> node = top;
+            R value = null;
+            long size = 0;
+            while (node.getLeft() == null || node.getRight() == null) {
+                value = fold(value, size == 0, mapper.apply(node.getElement()));
+                size++;
+                node = (node.getLeft() != null ? node.getLeft() : node.getRight());
+                if (node == null)
+                    return new TreeSummary<>(size, (int) size - 1, value);
+            }
+            int chain = (int) size;     // nodes above the split point
+            value = fold(value, size == 0, mapper.apply(node.getElement()));
+            size++;
+            SummaryTask<E,R> right = new SummaryTask<>(node.getRight(),
+                                            splits + 1, mapper, combiner);
+            right.fork();
+            TreeSummary<R> l = new SummaryTask<>(node.getLeft(), splits + 1,
+                                            mapper, combiner).compute();
+            TreeSummary<R> r = right.join();
+            value = combiner.apply(combiner.apply(value, l.getValue()),
+                                   r.getValue());
+            return new TreeSummary<>(size + l.getSize() + r.getSize(),
+                    chain + 1 + Math.max(l.getHeight(), r.getHeight()), value);
+        }
+        
+        /** Summarizes the subtree by a preorder walk, tracking the depth. */
+        private TreeSummary<R> sequential() {
+            Node<E> node = top;
+            R value = null;
+            long size = 0;
+            int depth = 0;
+            int height = 0;
+            while (node != null) {
+                value = fold(value, size == 0, mapper.apply(node.getElement()));
+                size++;
+                height = Math.max(height, depth);
+                if (node.getLeft() != null || node.getRight() != null) {
+                    node = preorderNext(node, top);
+                    depth++;
+                    continue;
+                }
+                // climb to the parent of the next node, as preorderNext does
+                Node<E> next = null;
+                for (; node != top; node = node.getParent(), depth--) {
+                    Node<E> parent = node.getParent();
+                    if (node == parent.getLeft() && parent.getRight() != null) {
+                        next = parent.getRight();
+                        break;
+                    }
+                }
+                node = next;
+            }
+            return new TreeSummary<>(size, height, value);
+        }
+    }
+    
+    /** Applies an action to each element of a subtree. */
+    private static class ForEachTask<E> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Node<E> top;
+        private final int splits;
+        private final Consumer<? super E> action;
+        
+        ForEachTask(Node<E> top, int splits, Consumer<? super E> action) {
+            this.top = top;
+            this.splits = splits;
+            this.action = action;
+        }
+        
+        protected void compute() {
+            Node<E> node = top;
+            if (node == null) return;
+            if (shouldSplit(splits)) {
+                while (node.getLeft() == null || node.getRight() == null) {
+                    action.accept(node.getElement());
+                    node = (node.getLeft() != null ? node.getLeft() : node.getRight());
+                    if (node == null) return;
+                }
+                action.accept(node.getElement());
+                ForEachTask<E> right = new ForEachTask<>(node.getRight(),
+                                                         splits + 1, action);
+                right.fork();
+                new ForEachTask<>(node.getLeft(), splits + 1, action).compute();
+                right.join();
+                return;
+            }
+            for (; node != null; node = preorderNext(node, top))
+                action.accept(node.getElement());
+        }
+    }
+    //----------- end of nested fork/join task classes -----------
+    
+    /**
+     * Computes the size and height of the tree and folds a function over its
+     * elements in one pass, splitting the work at subtree boundaries across
+     * the common ForkJoinPool. The combiner must be associative; results
+     * are combined in preorder.
+     * @param mapper    maps each element to a value
+     * @param combiner  combines two values
+     * @return the summary of the tree
+     * @throws ConcurrentModificationException if the tree changed meanwhile
+     */
+    public <R> TreeSummary<R> parallelSummary(Function<? super E, ? extends R> mapper,
+                                              BinaryOperator<R> combiner) {
+        int expectedModCount = modCount;
+        TreeSummary<R> answer =
+                new SummaryTask<E,R>(root, 0, mapper, combiner).invoke();
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+        return answer;
+    }
+    
+    /**
+     * Folds a function over the elements in parallel, as parallelSummary
+     * @param mapper    maps each element to a value
+     * @param combiner  combines two values; must be associative
+     * @return the folded value (or null if the tree is empty)
+     */
+    public <R> R parallelReduce(Function<? super E, ? extends R> mapper,
+                                BinaryOperator<R> combiner) {
+        return parallelSummary(mapper, combiner).getValue();
+    }
+    
+    /**
+     * Applies an action to every element, in no particular order, splitting
+     * the work at subtree boundaries across the common ForkJoinPool. The
+     * action may run concurrently on several threads.
+     * @param action  the action to be applied
+     * @throws ConcurrentModificationException if the tree changed meanwhile
+     */
+    public void parallelForEach(Consumer<? super E> action) {
+        int expectedModCount = modCount;
+        new ForEachTask<E>(root, 0, action).invoke();
+        if (modCount != expectedModCount)
+            throw new ConcurrentModificationException();
+    }
+    
+    public static void main(String[] args) {
+        LinkedBinaryTree decisions = new LinkedBinaryTree();
+        Position root = decisions.addRoot(new String("Do you have a dog?"));
+        Position firstYes = decisions.addLeft(root, new String(
+                                              "We can be friends"));
+        Position firstNo = decisions.addRight(root, new String(
+                                              "Are you allergic to dogs?"));
+        Position secondYes = decisions.addLeft(firstNo, new String(
+                                              "Sorry for your loss"));
+        Position secondNo = decisions.addRight(firstNo, new String(
+                                              "Do you want a dog?"));
+        Position thirdYes = decisions.addLeft(secondNo, new String(
+                                              "Pug life!"));
+        Position thirdNo = decisions.addRight(secondNo, new String(
+                                              "This conversation is over"));
+        
+        Scanner kb = new Scanner(System.in);
+        
+        System.out.println("Please answer 'Yes' or 'No' to the following.");
+        System.out.println(root.getElement());
+        
+        if (kb.next().equals("Yes")) {
+            System.out.println(firstYes.getElement());
+        }
+        else {
+            System.out.println(firstNo.getElement());
+            if (kb.next().equals("Yes")) {
+                System.out.println(secondYes.getElement());
+            }
+            else {
+                System.out.println(secondNo.getElement());
+                if (kb.next().equals("Yes")) {
+                    System.out.println(thirdYes.getElement());
+                }
+                else {
+                    System.out.println(thirdNo.getElement());
+                }
+            }
+        }
+    }
+}
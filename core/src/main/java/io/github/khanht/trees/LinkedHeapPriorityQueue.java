@@ -0,0 +1,793 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An implementation of a priority queue using a linked binary heap.
+ * <p>
+ * In recycling mode the heap keeps the nodes and entries it removes and
+ * reuses them for later inserts, so that a heap whose size stays steady
+ * allocates nothing. The contract of the mode is: an entry returned by
+ * removeMin (or removeMin(k) and drainTo) remains valid only until the
+ * next insert or addAll, which may overwrite it with a new key and value.
+ * Callers must read what they need from removed entries before inserting
+ * again, and must not keep them. Entries still in the heap are never
+ * reused. At most 64 removed entries are kept; the next insert clears the
+ * key and value of those it does not reuse, so the heap does not keep the
+ * caller's objects alive. The recycled nodes are internal to the heap.
+ */
+public class LinkedHeapPriorityQueue<K,V> extends AbstractPriorityQueue<K,V> {
+    
+    //---------------- nested Node class ----------------
+    protected static class Node<E> implements Position<E> {
+        private E element;
+        private Node<E> parent;
+        private Node<E> left;
+        private Node<E> right;
+        
+        public Node(E e, Node<E> above, Node<E> leftChild, Node<E> rightChild) {
+            element = e;
+            parent = above;
+            left = leftChild;
+            right = rightChild;
+        }
+        
+       //accessor methods
+        public E getElement( ) { return element; }
+        public Node<E> getParent( ) { return parent; }
+        public Node<E> getLeft( ) { return left; }
+        public Node<E> getRight( ) { return right; }
+
+        //update methods
+        public void setElement(E e) { element = e; }
+        public void setParent(Node<E> parentNode) { parent = parentNode; }
+        public void setLeft(Node<E> leftChild) { left = leftChild; }
+        public void setRight(Node<E> rightChild) { right = rightChild; }
+    }
+    //----------- end of nested Node class -----------
+    
+    /**
+     * Factory function to create a new node storing element e, reusing a
+     * removed node when recycling.
+     */
+    protected Node<Entry<K,V>> createNode(
+                    Entry<K,V> e, 
+                    Node<Entry<K,V>> parent, 
+                    Node<Entry<K,V>> left, 
+                    Node<Entry<K,V>> right) {
+        Node<Entry<K,V>> node = spareNodes;
+        if (node == null)
+            return new Node<Entry<K,V>> (e, parent, left, right);
+        spareNodes = node.getLeft();
+        node.setElement(e);
+        node.setParent(parent);
+        node.setLeft(left);
+        node.setRight(right);
+        return node;
+    }
+    
+    protected Node<Entry<K,V>> root = null;
+    private int size = 0;
+    /** The number of changes to the heap, for failing iterators fast. */
+    protected int modCount = 0;
+    /** Whether removed nodes and entries are kept for reuse. */
+    private boolean recycling = false;
+    /** The most removed entries kept for reuse. */
+    private static final int SPARE_ENTRIES = 64;
+    /** Removed nodes, linked through their left child. */
+    private Node<Entry<K,V>> spareNodes = null;
+    /**
+     * Removed entries, in spareEntries[0 .. spareCount-1]; those from index
+     * cleared on were removed since the last insert and still hold their
+     * key and value.
+     */
+    private PQEntry<K,V>[] spareEntries = null;
+    private int spareCount = 0;
+    private int cleared = 0;
+    
+    //constructors
+    public LinkedHeapPriorityQueue() { super(); }
+    public LinkedHeapPriorityQueue(Comparator<K> comp) { super(comp); }
+    public LinkedHeapPriorityQueue(K[] keys, V[] values) {
+        this(keys, values, new DefaultComparator<K>());
+    }
+    public LinkedHeapPriorityQueue(K[] keys, V[] values, Comparator<K> comp) {
+        super(comp);
+        if (keys.length != values.length)
+            throw new IllegalArgumentException("Keys and values differ in length");
+        List<Entry<K,V>> entries = new ArrayList<>(keys.length);
+        for (int j = 0; j < keys.length; j++)
+            entries.add(new PQEntry<>(keys[j], values[j]));
+        addAll(entries);
+    }
+    public LinkedHeapPriorityQueue(Iterable<? extends Entry<K,V>> entries) {
+        this(entries, new DefaultComparator<K>());
+    }
+    public LinkedHeapPriorityQueue(Iterable<? extends Entry<K,V>> entries,
+                                   Comparator<K> comp) {
+        super(comp);
+        addAll(entries);
+    }
+    
+    /**
+     * Checks if a position is valid and returns node representation
+     * @param p  the position to be validated
+     * @return node returned
+     * @throws IllegalArgumentException if position is not valid
+     */
+    protected Node<Entry<K,V>> validate(Position<Entry<K,V>> p) 
+                                throws IllegalArgumentException {
+        if (!(p instanceof Node))
+            throw new IllegalArgumentException("Not valid position type");
+        Node<Entry<K,V>> node = (Node<Entry<K,V>>) p;
+        if (node.getParent() == node)
+            throw new IllegalArgumentException("p is no longer in the tree");
+        return node;
+    }
+    
+    /**
+     * 
+     * @return size of heap
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * @return true if removed nodes and entries are reused
+     */
+    public boolean isRecycling() { return recycling; }
+    
+    /**
+     * Turns recycling of removed nodes and entries on or off; turning it
+     * off releases everything kept for reuse. See the class comment for
+     * the contract on removed entries.
+     * @param recycling  whether to recycle
+     */
+    public void setRecycling(boolean recycling) {
+        this.recycling = recycling;
+        if (!recycling) {
+            spareNodes = null;
+            spareEntries = null;
+            spareCount = 0;
+            cleared = 0;
+        }
+    }
+    
+    /**
+     * Keeps a node detached from the heap for reuse, if recycling
+     * @param node  a leaf already unlinked from its parent
+     */
+    private void recycle(Node<Entry<K,V>> node) {
+        if (!recycling) return;
+        node.setLeft(spareNodes);
+        spareNodes = node;
+    }
+    
+    /**
+     * Keeps a removed entry for reuse, if recycling and fewer than
+     * SPARE_ENTRIES are kept
+     * @param e  an entry just removed from the heap
+     */
+    private void recycle(Entry<K,V> e) {
+        if (!recycling || spareCount == SPARE_ENTRIES) return;
+        if (spareEntries == null)
+            spareEntries = newSpareEntries();
+        spareEntries[spareCount++] = (PQEntry<K,V>) e;
+    }
+    
+    /** Creates the array of kept entries. */
+    @SuppressWarnings("unchecked")
+    private PQEntry<K,V>[] newSpareEntries() {
+        return (PQEntry<K,V>[]) new PQEntry<?,?>[SPARE_ENTRIES];
+    }
+    
+    /**
+     * Creates the entry for a new key-value pair, reusing a removed entry
+     * when recycling. The other kept entries removed since the last insert
+     * are no longer valid, so their keys and values are cleared.
+     */
+    protected PQEntry<K,V> newEntry(K key, V value) {
+        if (spareCount == 0)
+            return super.newEntry(key, value);
+        PQEntry<K,V> e = spareEntries[--spareCount];
+        spareEntries[spareCount] = null;
+        for (int j = cleared; j < spareCount; j++) {
+            spareEntries[j].setKey(null);
+            spareEntries[j].setValue(null);
+        }
+        cleared = spareCount;
+        e.setKey(key);
+        e.setValue(value);
+        return initEntry(e);
+    }
+    
+    /**
+     * 
+     * @return the root of the heap
+     */
+    //public Position<PQEntry<K,V>> root() {
+        //return root;
+    //}
+    
+    /**
+     * Gets the parent of the given position
+     * @param p  the given position
+     * @return the position of parent
+     * @throws IllegalArgumentException if position is not valid
+     */
+    protected Position<Entry<K,V>> parent(Position<Entry<K,V>> p) throws
+                                                IllegalArgumentException {
+        Node<Entry<K,V>> node = validate(p);
+        return node.getParent();
+    }
+    
+    /**
+     * Gets the left child of the given position
+     * @param p  the given position
+     * @return the position of the left child
+     * @throws IllegalArgumentException if position is not valid
+     */
+    protected Position<Entry<K,V>> left(Position<Entry<K,V>> p) throws
+                                                IllegalArgumentException {
+        Node<Entry<K,V>> node = validate(p);
+        return node.getLeft();
+    }
+    
+    /**
+     * Gets the right child of the given position
+     * @param p  the given position
+     * @return the position of the right child
+     * @throws IllegalArgumentException if position is not valid
+     */
+    protected Position<Entry<K,V>> right(Position<Entry<K,V>> p) throws
+                                                IllegalArgumentException {
+        Node<Entry<K,V>> node = validate(p);
+        return node.getRight();
+    }
+    
+    /**
+     * Checks if the given position has a left child
+     * @param j  the given position
+     * @return true if child exists
+     */
+    protected boolean hasLeft(Position<Entry<K,V>> j) {
+        return left(j) != null;
+    }
+    
+    /**
+     * Checks if given position has a right child
+     * @param j  the given position
+     * @return true if child exists
+     */
+    protected boolean hasRight(Position<Entry<K,V>> j) {
+        return right(j) != null;
+    }
+    
+    /**
+     * Exchanges the entries at position i and j
+     * @param i  first position
+     * @param j  second position
+     */
+    protected void swap(Position<Entry<K,V>> i, Position<Entry<K,V>> j) {
+        metrics.recordSwap();
+        modCount++;
+        Entry<K,V> temp = i.getElement();
+        Node<Entry<K,V>> node = validate(i);
+        node.setElement(j.getElement());
+        Node<Entry<K,V>> node2 = validate(j);
+        node2.setElement(temp);
+    }
+    
+    /**
+     * Moves the entry at position j higher, if necessary, to maintain heap
+     * @param j  the position to start at
+     */
+    protected void upheap(Position<Entry<K,V>> j) {
+        int levels = 0;
+        while (validate(j)!=root) {
+            Position<Entry<K,V>> p = parent(j);
+            if (compare(j.getElement(),p.getElement()) >= 0) break;
+            swap(j,p);
+            j=p;
+            levels++;
+        }
+        metrics.recordUpheap(levels);
+    }
+    
+    /**
+     * Moves the entry at position j lower, if necessary, to maintain heap
+     * @param j  the position to start at
+     */
+    protected void downheap(Position<Entry<K,V>> j) {
+        int levels = 0;
+        while (hasLeft(j)) {
+            Position<Entry<K,V>> leftPosition = left(j);
+            Position<Entry<K,V>> smallChildPosition = leftPosition;
+            if (hasRight(j)) {
+                Position<Entry<K,V>> rightPosition = right(j);
+                if (compare(leftPosition.getElement(),rightPosition.getElement())
+                                                      > 0)
+                    smallChildPosition = rightPosition;
+            }
+            if (compare(smallChildPosition.getElement(),j.getElement()) >=0)
+                break;
+            swap(j, smallChildPosition);
+            j=smallChildPosition;
+            levels++;
+        }
+        metrics.recordDownheap(levels);
+    }
+    
+    /**
+     * Returns (but does not remove) an entry with minimal key (if any)
+     * @return the entry with minimal key
+     */
+    public Entry<K,V> min() {
+        metrics.recordMin();
+        if (isEmpty()) return null;
+        return root.getElement();
+    }
+    
+    /**
+     * Finds the node at the given level-order position by following the
+     * bits of its number below the leading one (0 for left, 1 for right).
+     * @param n  the 1-based level-order number of the node
+     * @return the node at that position
+     */
+    protected Node<Entry<K,V>> nodeAt(int n) {
+        Node<Entry<K,V>> current = root;
+        for (int bit = Integer.highestOneBit(n) >>> 1; bit != 0; bit >>>= 1) {
+            if ((n & bit) == 0)
+                current = current.getLeft();
+            else
+                current = current.getRight();
+        }
+        return current;
+    }
+    
+    /**
+     * Places a new node for the entry at the next free position of the heap
+     * without restoring heap order
+     * @param e  the entry to be stored
+     * @return the node created
+     */
+    private Node<Entry<K,V>> append(Entry<K,V> e) {
+        modCount++;
+        if (size == 0) {
+            root = createNode(e, null, null, null);
+            size = 1;
+            return root;
+        }
+        int n = size + 1;
+        Node<Entry<K,V>> parent = nodeAt(n / 2);
+        Node<Entry<K,V>> child = createNode(e, parent, null, null);
+        if ((n & 1) == 0)
+            parent.setLeft(child);
+        else
+            parent.setRight(child);
+        size++;
+        return child;
+    }
+    
+    /**
+     * Inserts a key-value pair and returns the entry created.
+     * @param key     the key of the new entry
+     * @param value   the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if key is not valid
+     */
+    public Entry<K,V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        metrics.recordInsert();
+        Entry<K,V> newest = newEntry(key, value);
+        Node<Entry<K,V>> child = append(newest);
+        metrics.recordSize(size);
+        upheap(child);
+        return newest;
+    }
+    
+    /**
+     * Inserts a new entry for each of the given key-value pairs. A batch that
+     * is large relative to the heap is merged by a single linear-time
+     * heapify instead of one upheap per entry.
+     * @param entries  the key-value pairs to be inserted
+     * @throws IllegalArgumentException if a key is not valid
+     */
+    public void addAll(Iterable<? extends Entry<K,V>> entries)
+                                    throws IllegalArgumentException {
+        // copy every pair before creating entries, since the given entries
+        // may be removed ones that creating an entry would reuse
+        List<K> keys = new ArrayList<>();
+        List<V> values = new ArrayList<>();
+        for (Entry<K,V> e : entries) {
+            checkKey(e.getKey());
+            keys.add(e.getKey());
+            values.add(e.getValue());
+        }
+        List<Entry<K,V>> batch = new ArrayList<>(keys.size());
+        for (int j = 0; j < keys.size(); j++) {
+            metrics.recordInsert();
+            batch.add(newEntry(keys.get(j), values.get(j)));
+        }
+        metrics.recordSize(size + batch.size());
+        if (!ArrayHeapPriorityQueue.isBulk(batch.size(), size + batch.size())) {
+            for (Entry<K,V> e : batch)
+                upheap(append(e));
+            return;
+        }
+        // gather the nodes in level order, so node j has children 2j+1, 2j+2
+        Node<Entry<K,V>>[] nodes = newNodes(size + batch.size());
+        if (size > 0) {
+            nodes[0] = root;
+            for (int j = 0; 2*j + 1 < size; j++) {
+                nodes[2*j + 1] = nodes[j].getLeft();
+                if (2*j + 2 < size)
+                    nodes[2*j + 2] = nodes[j].getRight();
+            }
+        }
+        modCount++;
+        for (Entry<K,V> e : batch) {
+            int j = size;
+            Node<Entry<K,V>> parent = (j == 0 ? null : nodes[(j-1) / 2]);
+            nodes[j] = createNode(e, parent, null, null);
+            if (parent == null)
+                root = nodes[j];
+            else if (j % 2 == 1)
+                parent.setLeft(nodes[j]);
+            else
+                parent.setRight(nodes[j]);
+            size++;
+        }
+        // bottom-up heap construction, starting at the parent of the last node
+        for (int j = size / 2 - 1; j >= 0; j--)
+            downheap(nodes[j]);
+    }
+    
+    /** Creates an array of n nodes. */
+    @SuppressWarnings("unchecked")
+    private static <K,V> Node<Entry<K,V>>[] newNodes(int n) {
+        return (Node<Entry<K,V>>[]) new Node<?>[n];
+    }
+    
+    /**
+     * Removes and returns an entry with minimal key.
+     * @return the removed entry (or null if empty)
+     */
+    public Entry<K,V> removeMin() {
+        metrics.recordRemoveMin();
+        if (size == 0) return null;
+        modCount++;
+        Entry<K,V> answer = root.getElement();
+        Node<Entry<K,V>> last = nodeAt(size);
+        if (last != root)
+            swap(root, last);
+        removeLastNode(last);
+        if (root != null)
+            downheap(root);
+        recycle(answer);
+        return answer;
+    }
+    
+    /**
+     * Unlinks the last node of the heap, whose entry has been moved to the
+     * root or removed, and keeps it for reuse if recycling
+     * @param last  the last node in level order
+     */
+    private void removeLastNode(Node<Entry<K,V>> last) {
+        if (last == root)
+            root = null;
+        else if ((size & 1) == 0)
+            last.getParent().setLeft(null);
+        else
+            last.getParent().setRight(null);
+        size--;
+        last.setElement(null);
+        last.setParent(last);
+        recycle(last);
+    }
+    
+    /**
+     * Returns the node before the given one in level order, stepping from
+     * the last node of the heap without walking down from the root, except
+     * once per level of the heap
+     * @param node  a node other than the root
+     * @param n     the 1-based level-order number of the node
+     * @return the node numbered n-1
+     */
+    private Node<Entry<K,V>> previous(Node<Entry<K,V>> node, int n) {
+        if ((n & 1) == 1)                   // a right child: its sibling
+            return node.getParent().getLeft();
+        Node<Entry<K,V>> current = node;
+        if ((n & (n - 1)) == 0) {           // first of its level: end of the one above
+            current = root;
+            while (current.getRight() != null)
+                current = current.getRight();
+            return current;
+        }
+        // climb to the nearest right-child ancestor, cross to its sibling
+        // and come back down the rightmost path
+        int levels = 0;
+        while (current.getParent().getLeft() == current) {
+            current = current.getParent();
+            levels++;
+        }
+        current = current.getParent().getLeft();
+        for (; levels > 0; levels--)
+            current = current.getRight();
+        return current;
+    }
+    
+    /**
+     * Moves the entry at the root down to a leaf along the path of smaller
+     * children, then back up to its place. The last entry of a heap, which
+     * removal moves to the root, usually belongs near the bottom, so this
+     * needs one comparison per level instead of the two of downheap.
+     */
+    private void downheapFromRoot() {
+        Node<Entry<K,V>> j = root;
+        int levels = 0;
+        while (j.getLeft() != null) {
+            Node<Entry<K,V>> child = j.getLeft();
+            if (j.getRight() != null
+                    && compare(child.getElement(), j.getRight().getElement()) > 0)
+                child = j.getRight();
+            swap(j, child);
+            j = child;
+            levels++;
+        }
+        metrics.recordDownheap(levels);
+        upheap(j);
+    }
+    
+    /**
+     * Removes up to max entries with minimal keys and adds them to the given
+     * collection in nondecreasing key order. The last node is found by a
+     * walk from the root once per batch and then stepped back in level
+     * order, and each entry moved to the root sinks with one comparison
+     * per level.
+     * @param c    the collection to transfer entries into
+     * @param max  the maximum number of entries to transfer
+     * @return the number of entries transferred
+     * @throws IllegalArgumentException if c is null or max is negative
+     */
+    public int drainTo(Collection<? super Entry<K,V>> c, int max)
+                                    throws IllegalArgumentException {
+        checkDrain(c, max);
+        int count = Math.min(max, size);
+        if (count == 0) return 0;
+        Node<Entry<K,V>> last = nodeAt(size);
+        for (int i = 0; i < count; i++) {
+            metrics.recordRemoveMin();
+            modCount++;
+            Entry<K,V> answer = root.getElement();
+            c.add(answer);
+            Node<Entry<K,V>> previous = (last == root ? null : previous(last, size));
+            if (last != root)
+                swap(root, last);
+            removeLastNode(last);
+            if (root != null)
+                downheapFromRoot();
+            recycle(answer);
+            last = previous;
+        }
+        return count;
+    }
+    
+    /**
+     * Returns (but does not remove) up to k entries with minimal keys, taken
+     * from orderedIterator, so this runs in O(k log k) regardless of the heap
+     * size.
+     * @param k  the maximum number of entries to return
+     * @return the entries in nondecreasing key order
+     * @throws IllegalArgumentException if k is negative
+     */
+    public List<Entry<K,V>> topK(int k) throws IllegalArgumentException {
+        if (k < 0) throw new IllegalArgumentException("Negative count");
+        List<Entry<K,V>> answer = new ArrayList<>(Math.min(k, size));
+        Iterator<Entry<K,V>> entries = orderedIterator();
+        while (answer.size() < k && entries.hasNext())
+            answer.add(entries.next());
+        return answer;
+    }
+    
+    /**
+     * Returns an iterator over the entries in preorder, following parent
+     * links instead of keeping a stack
+     * @return the iterator
+     */
+    public Iterator<Entry<K,V>> iterator() {
+        return new PreorderIterator();
+    }
+    
+    /**
+     * Returns a spliterator over the entries in no particular order, which
+     * splits the heap into subtrees
+     * @return the spliterator
+     */
+    public Spliterator<Entry<K,V>> spliterator() {
+        return new SubtreeSpliterator();
+    }
+    
+    /**
+     * Returns an iterator over the entries in nondecreasing key order, without
+     * removing them. The first k entries take O(k log k) time.
+     * @return the iterator
+     */
+    public Iterator<Entry<K,V>> orderedIterator() {
+        HeapOrderIterator<K,V,Node<Entry<K,V>>> answer =
+                new HeapOrderIterator<K,V,Node<Entry<K,V>>>(
+                        (a, b) -> compare(a, b), () -> modCount) {
+            protected Entry<K,V> entryOf(Node<Entry<K,V>> node) {
+                return node.getElement();
+            }
+            protected void offerChildren(Node<Entry<K,V>> node) {
+                if (node.getLeft() != null) offer(node.getLeft());
+                if (node.getRight() != null) offer(node.getRight());
+            }
+        };
+        if (root != null) answer.offer(root);
+        return answer;
+    }
+    
+    /**
+     * Returns a sequential stream of the entries in nondecreasing key order,
+     * computed lazily as by orderedIterator
+     * @return the stream
+     */
+    public Stream<Entry<K,V>> orderedStream() {
+        return StreamSupport.stream(Spliterators.spliterator(orderedIterator(),
+                size, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    
+    //---------------- nested PreorderIterator class ----------------
+    private class PreorderIterator implements Iterator<Entry<K,V>> {
+        private Node<Entry<K,V>> next = root;
+        private final int expectedModCount = modCount;
+        
+        public boolean hasNext() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return next != null;
+        }
+        
+        public Entry<K,V> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Node<Entry<K,V>> current = next;
+            if (current.getLeft() != null)
+                next = current.getLeft();
+            else {
+                // climb until we leave a left child whose sibling is unvisited
+                next = null;
+                for (Node<Entry<K,V>> n = current; n != root; n = n.getParent()) {
+                    Node<Entry<K,V>> parent = n.getParent();
+                    if (n == parent.getLeft() && parent.getRight() != null) {
+                        next = parent.getRight();
+                        break;
+                    }
+                }
+            }
+            return current.getElement();
+        }
+    }
+    //----------- end of nested PreorderIterator class -----------
+    
+    //---------------- nested SubtreeSpliterator class ----------------
+    /**
+     * A spliterator over a set of whole subtrees, plus at most one single
+     * node whose subtrees were split off. A lone subtree splits into its
+     * left subtree, which stays, and its root and right subtree, which go.
+     */
+    private class SubtreeSpliterator implements Spliterator<Entry<K,V>> {
+        private Node<Entry<K,V>> single;
+        private ArrayDeque<Node<Entry<K,V>>> subtrees;   // null until first used
+        private long estimate;
+        private int expectedModCount;
+        
+        SubtreeSpliterator() {}
+        
+        SubtreeSpliterator(Node<Entry<K,V>> single,
+                           ArrayDeque<Node<Entry<K,V>>> subtrees,
+                           long estimate, int expectedModCount) {
+            this.single = single;
+            this.subtrees = subtrees;
+            this.estimate = estimate;
+            this.expectedModCount = expectedModCount;
+        }
+        
+        private ArrayDeque<Node<Entry<K,V>>> getSubtrees() {
+            if (subtrees == null) {
+                subtrees = new ArrayDeque<>();
+                if (root != null) subtrees.push(root);
+                estimate = size;
+                expectedModCount = modCount;
+            }
+            return subtrees;
+        }
+        
+        public Spliterator<Entry<K,V>> trySplit() {
+            ArrayDeque<Node<Entry<K,V>>> stack = getSubtrees();
+            ArrayDeque<Node<Entry<K,V>>> given = new ArrayDeque<>();
+            Node<Entry<K,V>> givenSingle = null;
+            if (stack.size() >= 2) {
+                for (int n = stack.size() / 2; n > 0; n--)
+                    given.push(stack.pollLast());
+            }
+            else if (stack.size() == 1 && stack.peek().getLeft() != null) {
+                givenSingle = stack.pop();
+                stack.push(givenSingle.getLeft());
+                if (givenSingle.getRight() != null)
+                    given.push(givenSingle.getRight());
+            }
+            else
+                return null;
+            estimate >>>= 1;
+            return new SubtreeSpliterator(givenSingle, given, estimate,
+                                          expectedModCount);
+        }
+        
+        public boolean tryAdvance(Consumer<? super Entry<K,V>> action) {
+            if (action == null) throw new NullPointerException();
+            ArrayDeque<Node<Entry<K,V>>> stack = getSubtrees();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            Node<Entry<K,V>> node = single;
+            if (node != null)
+                single = null;
+            else {
+                node = stack.poll();
+                if (node == null) return false;
+                if (node.getRight() != null) stack.push(node.getRight());
+                if (node.getLeft() != null) stack.push(node.getLeft());
+            }
+            if (estimate > 0) estimate--;
+            action.accept(node.getElement());
+            return true;
+        }
+        
+        public long estimateSize() {
+            getSubtrees();
+            return estimate;
+        }
+        
+        public int characteristics() { return Spliterator.NONNULL; }
+    }
+    //----------- end of nested SubtreeSpliterator class -----------
+    
+    public static void main(String[] args) {
+        //Airline standby simulation
+        LinkedHeapPriorityQueue<Integer,String> heap =
+                                        new LinkedHeapPriorityQueue<>();
+        //Passengers with equal priority board in the order they arrived
+        heap.setStable(true);
+        heap.insert(4, "Joe");
+        heap.insert(5, "Maria");
+        heap.insert(3, "Sally");
+        heap.insert(1, "Bob");
+        heap.insert(1, "Ann");
+        //Who is at the front of the priority queue?
+        System.out.println(heap.min().getValue() + " is at the front");
+        //Let the person with top priority board
+        System.out.println(heap.removeMin().getValue() + " boarded the plane");
+        //Who is at the front of the priorty queue?
+        System.out.println(heap.min().getValue() + " is at the front");
+        //Let the next top priority board
+        System.out.println(heap.removeMin().getValue() + " boarded the plane");
+    }
+}
\ No newline at end of file
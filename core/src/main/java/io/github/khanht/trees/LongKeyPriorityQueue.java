@@ -0,0 +1,168 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.Arrays;
+
+/**
+ * A priority queue specialized for primitive long keys. Keys and values are
+ * kept in parallel arrays forming an array-based heap, so no key is boxed
+ * and no entry is allocated once the arrays have grown to their steady-state
+ * capacity.
+ */
+public class LongKeyPriorityQueue<V> {
+
+    /** Initial capacity of the heap arrays when none is given. */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;
+    private int size = 0;
+
+    //constructors
+    public LongKeyPriorityQueue() { this(DEFAULT_CAPACITY); }
+    public LongKeyPriorityQueue(int initialCapacity) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Negative capacity");
+        keys = new long[Math.max(initialCapacity, 1)];
+        values = new Object[keys.length];
+    }
+
+    /**
+     * @return the number of items in the priority queue
+     */
+    public int size() { return size; }
+
+    /**
+     * @return true if the priority queue is empty
+     */
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Grows the heap arrays, if necessary, to hold the given number of entries
+     * @param capacity  the number of entries that must fit
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= keys.length) return;
+        if (capacity < 0)
+            throw new IllegalStateException("Heap is too large");
+        int grown = keys.length + (keys.length >> 1);
+        if (grown < capacity || grown < 0)
+            grown = capacity;
+        keys = Arrays.copyOf(keys, grown);
+        values = Arrays.copyOf(values, grown);
+    }
+
+    /**
+     * Moves the hole at index j higher until key can be stored there
+     * @param j      the index of the hole
+     * @param key    the key to be placed
+     * @param value  the value to be placed
+     */
+    private void upheap(int j, long key, Object value) {
+        while (j > 0) {
+            int p = (j-1) >>> 1;
+            if (key >= keys[p]) break;
+            keys[j] = keys[p];
+            values[j] = values[p];
+            j = p;
+        }
+        keys[j] = key;
+        values[j] = value;
+    }
+
+    /**
+     * Moves the hole at index j lower until key can be stored there
+     * @param j      the index of the hole
+     * @param key    the key to be placed
+     * @param value  the value to be placed
+     */
+    private void downheap(int j, long key, Object value) {
+        int half = size >>> 1;          // first index without children
+        while (j < half) {
+            int child = 2*j + 1;
+            int right = child + 1;
+            if (right < size && keys[right] < keys[child])
+                child = right;
+            if (key <= keys[child]) break;
+            keys[j] = keys[child];
+            values[j] = values[child];
+            j = child;
+        }
+        keys[j] = key;
+        values[j] = value;
+    }
+
+    /** Returns the value at index j, which insert stored as a V. */
+    @SuppressWarnings("unchecked")
+    private V valueAt(int j) {
+        return (V) values[j];
+    }
+
+    /**
+     * Inserts a key-value pair
+     * @param key    the key of the new entry
+     * @param value  the associated value of the new entry
+     */
+    public void insert(long key, V value) {
+        ensureCapacity(size + 1);
+        upheap(size++, key, value);
+    }
+
+    /**
+     * Returns (but does not remove) a minimal key
+     * @return the minimal key
+     * @throws IllegalStateException if the priority queue is empty
+     */
+    public long minKey() throws IllegalStateException {
+        if (size == 0) throw new IllegalStateException("Priority queue is empty");
+        return keys[0];
+    }
+
+    /**
+     * Returns (but does not remove) the value associated with a minimal key
+     * @return the value with minimal key (or null if empty)
+     */
+    public V min() {
+        if (size == 0) return null;
+        return valueAt(0);
+    }
+
+    /**
+     * Removes the entry with minimal key and returns its value
+     * @return the removed value (or null if empty)
+     */
+    public V removeMin() {
+        if (size == 0) return null;
+        V answer = valueAt(0);
+        int last = --size;
+        long key = keys[last];
+        Object value = values[last];
+        values[last] = null;
+        if (last > 0)
+            downheap(0, key, value);
+        return answer;
+    }
+
+    /** Removes all entries from the priority queue. */
+    public void clear() {
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    public static void main(String[] args) {
+        //Airline standby simulation keyed by check-in time
+        LongKeyPriorityQueue<String> heap = new LongKeyPriorityQueue<>();
+        heap.insert(1_700_000_004L, "Joe");
+        heap.insert(1_700_000_005L, "Maria");
+        heap.insert(1_700_000_003L, "Sally");
+        heap.insert(1_700_000_001L, "Bob");
+        while (!heap.isEmpty()) {
+            long checkIn = heap.minKey();
+            System.out.println(heap.removeMin() + " (checked in at " +
+                               checkIn + ") boarded the plane");
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A read-only binary tree over a memory-mapped file written by
+ * {@link TreeSerializer}. Opening it reads only the header and trailer;
+ * nodes are found through the file's index and elements are decoded each
+ * time they are asked for, so a tree of any size costs almost no Java heap
+ * and is ready as soon as it is mapped.
+ * <p>
+ * Positions are small handles holding a node's preorder number, created on
+ * demand. Handles for the same node are equal but need not be identical.
+ */
+public class MappedBinaryTree<E> extends AbstractBinaryTree<E> {
+
+    private static final int NONE = TreeSerializer.NONE;
+
+    //---------------- nested Handle class ----------------
+    private static final class Handle<E> implements Position<E> {
+        private final MappedBinaryTree<E> tree;
+        private final int index;
+
+        Handle(MappedBinaryTree<E> tree, int index) {
+            this.tree = tree;
+            this.index = index;
+        }
+
+        public E getElement() { return tree.element(index); }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Handle)) return false;
+            Handle<?> h = (Handle<?>) o;
+            return tree == h.tree && index == h.index;
+        }
+
+        public int hashCode() { return index; }
+    }
+    //----------- end of nested Handle class -----------
+
+    private final Codec<E> codec;
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private final int payloadStart;
+    private final int indexStart;
+
+    /**
+     * Maps a file written by TreeSerializer.write
+     * @param file   the file holding the tree
+     * @param codec  the codec converting bytes to elements
+     * @throws IOException if the file cannot be mapped or is not a tree
+     */
+    public MappedBinaryTree(Path file, Codec<E> codec) throws IOException {
+        if (codec == null) throw new IllegalArgumentException("Null codec");
+        this.codec = codec;
+        try (FileChannel channel = FileChannel.open(file,
+                                            StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE)
+                throw new IOException("Tree file too large to map");
+            if (length < TreeSerializer.HEADER_BYTES
+                            + TreeSerializer.TRAILER_BYTES)
+                throw new IOException("Not a tree file");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+        int trailer = buffer.limit() - TreeSerializer.TRAILER_BYTES;
+        if (buffer.getInt(0) != TreeSerializer.MAGIC
+                || buffer.getInt(trailer + 16) != TreeSerializer.MAGIC)
+            throw new IOException("Not a tree file");
+        if (buffer.getInt(4) != TreeSerializer.VERSION)
+            throw new IOException("Unsupported tree version");
+        size = buffer.getInt(8);
+        long payload = buffer.getLong(trailer);
+        long index = buffer.getLong(trailer + 8);
+        if (size < 0
+                || payload != TreeSerializer.HEADER_BYTES
+                              + TreeSerializer.shapeBytes(size)
+                || index < payload
+                || index + (long) size * TreeSerializer.INDEX_ENTRY_BYTES
+                              != trailer)
+            throw new IOException("Corrupt tree file");
+        payloadStart = (int) payload;
+        indexStart = (int) index;
+    }
+
+    /** Returns the shape bits of node i: 2 if it has a left child, plus 1
+     * if it has a right child. */
+    private int shape(int i) {
+        return buffer.get(TreeSerializer.HEADER_BYTES + (i >>> 2))
+                    >> 2 * (i & 3) & 3;
+    }
+
+    private int indexEntry(int i, int field) {
+        return buffer.getInt(indexStart
+                + i * TreeSerializer.INDEX_ENTRY_BYTES + 4 * field);
+    }
+
+    /** Decodes the element of node i. */
+    private E element(int i) {
+        int offset = payloadStart + indexEntry(i, 2);
+        int length = buffer.getInt(offset);
+        if (length == NONE) return null;
+        return codec.decode(buffer.slice(offset + 4, length));
+    }
+
+    /** Returns a handle for node i (or null if i is NONE). */
+    private Position<E> position(int i) {
+        return (i == NONE ? null : new Handle<>(this, i));
+    }
+
+    /**
+     * Validates the position and returns its preorder number.
+     * @param p  a position of the tree
+     * @return the number of the position
+     * @throws IllegalArgumentException if position is not valid
+     */
+    protected int validate(Position<E> p) throws IllegalArgumentException {
+        if (!(p instanceof Handle))
+            throw new IllegalArgumentException("Not valid position type");
+        Handle<E> h = (Handle<E>) p;
+        if (h.tree != this)
+            throw new IllegalArgumentException("p does not belong to this tree");
+        return h.index;
+    }
+
+    /**
+     * @return the size of the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the root of the tree
+     */
+    public Position<E> root() {
+        return (size == 0 ? null : position(0));
+    }
+
+    public Position<E> parent(Position<E> p) throws IllegalArgumentException {
+        return position(indexEntry(validate(p), 0));
+    }
+
+    public Position<E> left(Position<E> p) throws IllegalArgumentException {
+        int i = validate(p);
+        return ((shape(i) & 2) != 0 ? position(i + 1) : null);
+    }
+
+    public Position<E> right(Position<E> p) throws IllegalArgumentException {
+        return position(indexEntry(validate(p), 1));
+    }
+
+    public boolean isRoot(Position<E> p) throws IllegalArgumentException {
+        return validate(p) == 0;
+    }
+
+    /** Returns the Position of p's sibling (or null if no sibling exists). */
+    public Position<E> sibling(Position<E> p) throws IllegalArgumentException {
+        int i = validate(p);
+        int above = indexEntry(i, 0);
+        if (above == NONE) return null;
+        if (i == above + 1 && (shape(above) & 2) != 0)   // a left child
+            return position(indexEntry(above, 1));
+        return ((shape(above) & 2) != 0 ? position(above + 1) : null);
+    }
+
+    /** Returns the number of children of Position p. */
+    public int numChildren(Position<E> p) throws IllegalArgumentException {
+        int bits = shape(validate(p));
+        return (bits >> 1) + (bits & 1);
+    }
+
+    /** Iterates the elements in preorder, which is the order of the file. */
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int next = 0;
+            public boolean hasNext() { return next < size; }
+            public E next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return element(next++);
+            }
+        };
+    }
+
+    public Iterable<Position<E>> positions() { return preorder(); }
+
+    /**
+     * @return the positions of the tree in preorder
+     */
+    public Iterable<Position<E>> preorder() {
+        return () -> new Iterator<Position<E>>() {
+            private int next = 0;
+            public boolean hasNext() { return next < size; }
+            public Position<E> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return position(next++);
+            }
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        //Ship the decision tree of LinkedBinaryTree and open it in place
+        LinkedBinaryTree<String> decisions = new LinkedBinaryTree<>();
+        Position<String> root = decisions.addRoot("Do you have a dog?");
+        decisions.addLeft(root, "We can be friends");
+        Position<String> firstNo = decisions.addRight(root,
+                                            "Are you allergic to dogs?");
+        decisions.addLeft(firstNo, "Sorry for your loss");
+        decisions.addRight(firstNo, "Do you want a dog?");
+        Path file = java.nio.file.Files.createTempFile("decisions", ".tree");
+        file.toFile().deleteOnExit();
+        try (java.io.OutputStream out = java.nio.file.Files.newOutputStream(file)) {
+            TreeSerializer.write(decisions, Codec.STRING, out);
+        }
+        MappedBinaryTree<String> mapped = TreeSerializer.map(file, Codec.STRING);
+        Position<String> no = mapped.right(mapped.root());
+        System.out.println(no.getElement());
+        System.out.println("  No: " + mapped.right(no).getElement());
+    }
+}
@@ -0,0 +1,466 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+
+/**
+ * A persistent priority queue with long keys whose array-based heap is kept
+ * in a memory-mapped file. Each entry occupies a fixed-width slot holding its
+ * key and its value as written by a {@link Codec}, so a large queue costs
+ * no Java heap and no garbage collection work, and reopening a file attaches
+ * to the heap in it without rebuilding.
+ *
+ * Every operation first writes the slots it will change to a small redo log
+ * and marks the log committed, then applies it. If the process dies part way
+ * through, reopening the file replays a committed log, so the heap is always
+ * either before or after the operation. When opened with sync, the file is
+ * forced to storage at each step, which extends this to power failures at
+ * the cost of a few disk writes per operation.
+ */
+public class MappedHeapPriorityQueue<V> extends AbstractPriorityQueue<Long,V>
+                                        implements AutoCloseable {
+
+    private static final int MAGIC = 0x41335051;
+    private static final int VERSION = 1;
+
+    // offsets of the header fields
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 4;
+    private static final int VALUE_BYTES_AT = 8;
+    private static final int SIZE_AT = 12;
+    private static final int LOG_STATE_AT = 16;
+    private static final int LOG_COUNT_AT = 20;
+    private static final int LOG_SIZE_AT = 24;
+    private static final int LOG_CHECKSUM_AT = 28;
+    private static final int HEADER_BYTES = 64;
+
+    private static final int CLEAN = 0;
+    private static final int COMMITTED = 1;
+
+    /** Slots changed by one operation: a root-to-leaf path plus one. */
+    private static final int LOG_CAPACITY = 32;
+
+    /** Number of slots in a newly created file. */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /** Largest file that can be mapped as one buffer. */
+    private static final long MAX_FILE_BYTES = Integer.MAX_VALUE;
+
+    /** Value length stored for a null value. */
+    private static final int NULL_VALUE = -1;
+
+    private final Codec<V> codec;
+    private final int maxValueBytes;
+    private final boolean sync;
+    private final int slotBytes;       // key, value length, value bytes
+    private final int recordBytes;     // target index, slot
+    private final int dataStart;
+    private final FileChannel channel;
+    private final ByteBuffer valueBuffer;
+    private final CRC32 checksum = new CRC32();
+    private MappedByteBuffer buffer;
+    private ByteBuffer source;         // second view of buffer to copy from
+    private int capacity;
+    private int size;
+    private int logCount;
+    private int modCount = 0;
+    private boolean closed = false;
+
+    //constructors
+    public MappedHeapPriorityQueue(Path file, Codec<V> codec, int maxValueBytes)
+                                    throws IOException {
+        this(file, codec, maxValueBytes, false);
+    }
+    /**
+     * Opens the priority queue stored in a file, creating it if necessary
+     * @param file           the file holding the heap
+     * @param codec          the codec converting values to bytes
+     * @param maxValueBytes  the largest encoded value accepted
+     * @param sync           whether to force the file to storage on each
+     *                       operation
+     * @throws IOException if the file cannot be opened or is not a priority
+     *                     queue with the same maximum value size
+     * @throws IllegalArgumentException if codec is null or maxValueBytes is
+     *                                  negative
+     */
+    public MappedHeapPriorityQueue(Path file, Codec<V> codec, int maxValueBytes,
+                                   boolean sync) throws IOException {
+        if (codec == null) throw new IllegalArgumentException("Null codec");
+        if (maxValueBytes < 0)
+            throw new IllegalArgumentException("Negative value size");
+        this.codec = codec;
+        this.maxValueBytes = maxValueBytes;
+        this.sync = sync;
+        slotBytes = align(12 + maxValueBytes);
+        recordBytes = 8 + slotBytes;
+        dataStart = align(HEADER_BYTES + LOG_CAPACITY * recordBytes);
+        if (dataStart + (long) slotBytes > MAX_FILE_BYTES)
+            throw new IllegalArgumentException("Value size too large");
+        valueBuffer = ByteBuffer.allocate(maxValueBytes);
+        channel = FileChannel.open(file, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            long length = channel.size();
+            if (length == 0) {
+                map(Math.min(dataStart + (long) INITIAL_CAPACITY * slotBytes,
+                             MAX_FILE_BYTES));
+                format();
+            }
+            else if (length < dataStart || length > MAX_FILE_BYTES)
+                throw new IOException("Not a priority queue file");
+            else {
+                map(length);
+                if (buffer.getInt(MAGIC_AT) == 0)
+                    format();              // creation was interrupted
+                else
+                    attach();
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Rounds n up to a multiple of eight. */
+    private static int align(int n) { return (n + 7) & ~7; }
+
+    /**
+     * Maps the first length bytes of the file, extending it if necessary
+     * @param length  the number of bytes to map
+     */
+    private void map(long length) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        source = buffer.duplicate();
+        capacity = (int) ((length - dataStart) / slotBytes);
+    }
+
+    /** Writes the header of an empty queue, the magic number last. */
+    private void format() {
+        buffer.putInt(VERSION_AT, VERSION);
+        buffer.putInt(VALUE_BYTES_AT, maxValueBytes);
+        buffer.putInt(SIZE_AT, 0);
+        buffer.putInt(LOG_STATE_AT, CLEAN);
+        buffer.force();
+        buffer.putInt(MAGIC_AT, MAGIC);
+        buffer.force();
+        size = 0;
+    }
+
+    /** Checks the header of an existing queue and replays a committed log. */
+    private void attach() throws IOException {
+        if (buffer.getInt(MAGIC_AT) != MAGIC)
+            throw new IOException("Not a priority queue file");
+        if (buffer.getInt(VERSION_AT) != VERSION)
+            throw new IOException("Unsupported file version");
+        if (buffer.getInt(VALUE_BYTES_AT) != maxValueBytes)
+            throw new IOException("File has a different value size");
+        if (buffer.getInt(LOG_STATE_AT) == COMMITTED) {
+            logCount = buffer.getInt(LOG_COUNT_AT);
+            int newSize = buffer.getInt(LOG_SIZE_AT);
+            // a log that does not check out was never fully written
+            if (logCount >= 0 && logCount <= LOG_CAPACITY
+                    && newSize >= 0 && newSize <= capacity
+                    && buffer.getInt(LOG_CHECKSUM_AT) == logChecksum()) {
+                apply();
+                buffer.putInt(SIZE_AT, newSize);
+                buffer.force();
+            }
+            buffer.putInt(LOG_STATE_AT, CLEAN);
+        }
+        size = buffer.getInt(SIZE_AT);
+        if (size < 0 || size > capacity)
+            throw new IOException("Corrupt priority queue file");
+    }
+
+    /** Doubles the number of slots in the file. */
+    private void grow() throws IllegalStateException {
+        long length = Math.min(dataStart + 2L * capacity * slotBytes,
+                               MAX_FILE_BYTES);
+        if (length < dataStart + (capacity + 1L) * slotBytes)
+            throw new IllegalStateException("Queue is full");
+        try {
+            map(length);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Cannot grow file", e);
+        }
+    }
+
+    private void checkOpen() throws IllegalStateException {
+        if (closed) throw new IllegalStateException("Queue is closed");
+    }
+
+    // utilities for locating slots and log records in the file
+    private int slot(int j) { return dataStart + j * slotBytes; }
+    private int record(int i) { return HEADER_BYTES + i * recordBytes; }
+    private long keyAt(int j) { return buffer.getLong(slot(j)); }
+
+    /**
+     * Reads the entry stored in a slot
+     * @param j  the index of the slot
+     * @return a new entry with the slot's key and value
+     */
+    private Entry<Long,V> entryAt(int j) {
+        int offset = slot(j);
+        int length = buffer.getInt(offset + 8);
+        V value = (length == NULL_VALUE ? null
+                        : codec.decode(buffer.slice(offset + 12, length)));
+        return new PQEntry<>(buffer.getLong(offset), value);
+    }
+
+    /**
+     * Encodes a value into valueBuffer
+     * @param value  the value to be encoded
+     * @return the number of bytes written, or NULL_VALUE for null
+     * @throws IllegalArgumentException if the value is longer than allowed
+     */
+    private int encode(V value) throws IllegalArgumentException {
+        if (value == null) return NULL_VALUE;
+        valueBuffer.clear();
+        try {
+            codec.encode(value, valueBuffer);
+        }
+        catch (BufferOverflowException e) {
+            throw new IllegalArgumentException("Value too large");
+        }
+        return valueBuffer.position();
+    }
+
+    /**
+     * Logs that slot j will receive the current contents of slot from
+     * @param j     the index of the slot to be written
+     * @param from  the index of the slot to be copied
+     */
+    private void logMove(int j, int from) {
+        int offset = record(logCount++);
+        buffer.putInt(offset, j);
+        buffer.put(offset + 8, source, slot(from), slotBytes);
+    }
+
+    /**
+     * Logs that slot j will receive a new entry whose value is in valueBuffer
+     * @param j       the index of the slot to be written
+     * @param key     the key of the new entry
+     * @param length  the length of the encoded value
+     */
+    private void logNew(int j, long key, int length) {
+        int offset = record(logCount++);
+        buffer.putInt(offset, j);
+        buffer.putLong(offset + 8, key);
+        buffer.putInt(offset + 16, length);
+        if (length > 0)
+            buffer.put(offset + 20, valueBuffer, 0, length);
+    }
+
+    /** Returns the checksum of the first logCount records of the log. */
+    private int logChecksum() {
+        source.limit(record(logCount)).position(HEADER_BYTES);
+        checksum.reset();
+        checksum.update(source);
+        source.clear();
+        return (int) checksum.getValue();
+    }
+
+    /** Copies each logged slot to its place in the heap. */
+    private void apply() {
+        for (int i = 0; i < logCount; i++) {
+            int offset = record(i);
+            buffer.put(slot(buffer.getInt(offset)), source, offset + 8,
+                       slotBytes);
+        }
+    }
+
+    /**
+     * Commits the logged slots and the new size, then applies them
+     * @param newSize  the number of entries after the operation
+     */
+    private void commit(int newSize) {
+        buffer.putInt(LOG_COUNT_AT, logCount);
+        buffer.putInt(LOG_SIZE_AT, newSize);
+        buffer.putInt(LOG_CHECKSUM_AT, logChecksum());
+        if (sync) buffer.force();
+        buffer.putInt(LOG_STATE_AT, COMMITTED);
+        if (sync) buffer.force();
+        apply();
+        buffer.putInt(SIZE_AT, newSize);
+        if (sync) buffer.force();
+        // losing this write only replays the log again on reopening
+        buffer.putInt(LOG_STATE_AT, CLEAN);
+        size = newSize;
+        logCount = 0;
+        modCount++;
+    }
+
+    /**
+     * @return size of heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Only turning stability off is supported, as a no-op: the file format
+     * has no room for sequence numbers
+     * @param stable  whether the queue is stable
+     * @throws UnsupportedOperationException if stable is true
+     */
+    public void setStable(boolean stable) throws UnsupportedOperationException {
+        if (stable)
+            throw new UnsupportedOperationException("Mapped heap cannot be stable");
+    }
+
+    /**
+     * Returns (but does not remove) an entry with minimal key (if any)
+     * @return a new entry with minimal key
+     * @throws IllegalStateException if the queue is closed
+     */
+    public Entry<Long,V> min() throws IllegalStateException {
+        checkOpen();
+        metrics.recordMin();
+        if (size == 0) return null;
+        return entryAt(0);
+    }
+
+    /**
+     * Inserts a key-value pair and returns the entry created.
+     * @param key     the key of the new entry
+     * @param value   the associated value of the new entry
+     * @return a new entry storing the key-value pair
+     * @throws IllegalArgumentException if key is null or value is too large
+     * @throws IllegalStateException if the queue is closed or the file full
+     */
+    public Entry<Long,V> insert(Long key, V value)
+                        throws IllegalArgumentException, IllegalStateException {
+        checkOpen();
+        if (key == null) throw new IllegalArgumentException("Null key");
+        long k = key;
+        int length = encode(value);
+        if (size == capacity) grow();
+        metrics.recordInsert();
+        // move parents down along the path to the hole, then fill the hole
+        int j = size;
+        int levels = 0;
+        while (j > 0) {
+            int p = (j - 1) / 2;
+            metrics.recordComparison();
+            if (keyAt(p) <= k) break;
+            logMove(j, p);
+            j = p;
+            levels++;
+        }
+        logNew(j, k, length);
+        commit(size + 1);
+        metrics.recordUpheap(levels);
+        metrics.recordSize(size);
+        return new PQEntry<>(key, value);
+    }
+
+    /**
+     * Removes and returns an entry with minimal key.
+     * @return the removed entry (or null if empty)
+     * @throws IllegalStateException if the queue is closed
+     */
+    public Entry<Long,V> removeMin() throws IllegalStateException {
+        checkOpen();
+        metrics.recordRemoveMin();
+        if (size == 0) return null;
+        Entry<Long,V> answer = entryAt(0);
+        int last = size - 1;
+        int levels = 0;
+        if (last > 0) {
+            // move smaller children up from the root, then fill the hole
+            // with the last entry
+            long k = keyAt(last);
+            int j = 0;
+            while (2*j + 1 < last) {
+                int c = 2*j + 1;
+                if (c + 1 < last) {
+                    metrics.recordComparison();
+                    if (keyAt(c + 1) < keyAt(c))
+                        c++;
+                }
+                metrics.recordComparison();
+                if (keyAt(c) >= k) break;
+                logMove(j, c);
+                j = c;
+                levels++;
+            }
+            logMove(j, last);
+        }
+        commit(last);
+        metrics.recordDownheap(levels);
+        return answer;
+    }
+
+    /**
+     * Returns an iterator over the entries in no particular order. Each
+     * entry is read from the file as it is reached.
+     * @return the iterator
+     * @throws IllegalStateException if the queue is closed
+     */
+    public Iterator<Entry<Long,V>> iterator() throws IllegalStateException {
+        checkOpen();
+        return new Iterator<Entry<Long,V>>() {
+            private int j = 0;
+            private final int expectedModCount = modCount;
+
+            public boolean hasNext() {
+                checkOpen();
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return j < size;
+            }
+
+            public Entry<Long,V> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return entryAt(j++);
+            }
+        };
+    }
+
+    /**
+     * Forces the file to storage and closes it. The mapping itself is
+     * released when the queue is garbage collected.
+     * @throws IOException if the file cannot be closed
+     */
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        buffer.force();
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        //Airline standby list that survives a restart
+        Path file = Files.createTempFile("standby", ".pq");
+        file.toFile().deleteOnExit();
+        try (MappedHeapPriorityQueue<String> heap =
+                    new MappedHeapPriorityQueue<>(file, Codec.STRING, 32)) {
+            heap.insert(4L, "Joe");
+            heap.insert(5L, "Maria");
+            heap.insert(3L, "Sally");
+            heap.insert(1L, "Bob");
+        }
+        try (MappedHeapPriorityQueue<String> heap =
+                    new MappedHeapPriorityQueue<>(file, Codec.STRING, 32)) {
+            while (!heap.isEmpty())
+                System.out.println(heap.removeMin().getValue() +
+                                   " boarded the plane");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+/**
+ * Interface for receiving the operations performed by a priority queue, for
+ * counting and profiling. Sift distances are measured in heap levels.
+ */
+public interface MetricsRecorder {
+    void recordInsert();
+    void recordRemoveMin();
+    void recordMin();
+    void recordComparison();
+    void recordSwap();
+    void recordUpheap(int levels);
+    void recordDownheap(int levels);
+    void recordSize(int size);
+}
@@ -0,0 +1,273 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.Comparator;
+import java.util.Iterator;
+
+/**
+ * An implementation of a priority queue using an array-based min-max heap,
+ * whose levels alternate between min levels, holding the smallest key of
+ * their subtree, and max levels, holding the largest. Both min() and max()
+ * take O(1) time, and removeMin and removeMax O(log n).
+ * <p>
+ * A bounded heap keeps at most a fixed number of entries with the smallest
+ * keys, such as the best scores of a stream, in an array allocated once.
+ * When it is full, a key that is not less than the current maximum is
+ * rejected after a single comparison, and any other key evicts the entry
+ * with the maximum key.
+ */
+public class MinMaxHeapPriorityQueue<K,V> extends ArrayHeapPriorityQueue<K,V> {
+
+    /** The maximum number of entries, or -1 if the heap is unbounded. */
+    private final int capacity;
+    /** The index of a maximal entry, valid while modCount is maxModCount. */
+    private int maxIndex;
+    private int maxModCount = -1;
+
+    //constructors
+    public MinMaxHeapPriorityQueue() { super(); capacity = -1; }
+    public MinMaxHeapPriorityQueue(Comparator<K> comp) {
+        super(comp);
+        capacity = -1;
+    }
+    public MinMaxHeapPriorityQueue(int capacity) {
+        this(capacity, new DefaultComparator<K>());
+    }
+    /**
+     * Creates an empty bounded heap, which keeps the capacity entries with
+     * the smallest keys
+     * @param capacity  the maximum number of entries
+     * @param comp      the comparator defining the ordering of keys
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public MinMaxHeapPriorityQueue(int capacity, Comparator<K> comp)
+                                    throws IllegalArgumentException {
+        super(checkCapacity(capacity), comp);
+        this.capacity = capacity;
+    }
+
+    private static int checkCapacity(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity not positive");
+        return capacity;
+    }
+
+    /**
+     * @return the maximum number of entries (or -1 if the heap is unbounded)
+     */
+    public int getCapacity() { return capacity; }
+
+    /**
+     * @return true if the heap holds as many entries as it may
+     */
+    public boolean isFull() { return size() == capacity; }
+
+    /** Returns whether index j is on a min level of the heap. */
+    private static boolean isMinLevel(int j) {
+        return ((31 - Integer.numberOfLeadingZeros(j + 1)) & 1) == 0;
+    }
+
+    /**
+     * Compares the entries at indices i and j in the order of a level
+     * @return true if the entry at i belongs above the one at j on a min
+     * level (if min is true) or a max level (otherwise)
+     */
+    private boolean above(int i, int j, boolean min) {
+        int c = compare(heap[i], heap[j]);
+        return (min ? c < 0 : c > 0);
+    }
+
+    /**
+     * Moves the entry at index j higher, if necessary, to maintain heap
+     * @param j  the index to start at
+     */
+    protected void upheap(int j) {
+        int levels = 0;
+        if (j > 0) {
+            boolean min = isMinLevel(j);
+            int p = parent(j);
+            if (above(p, j, min)) {         // belongs on the parent's levels
+                swap(j, p);
+                j = p;
+                min = !min;
+                levels++;
+            }
+            while (j > 2) {
+                int g = parent(parent(j));
+                if (!above(j, g, min)) break;
+                swap(j, g);
+                j = g;
+                levels++;
+            }
+        }
+        metrics.recordUpheap(levels);
+    }
+
+    /**
+     * Moves the entry at index j lower, if necessary, to maintain heap
+     * @param j  the index to start at
+     */
+    protected void downheap(int j) {
+        int levels = 0;
+        boolean min = isMinLevel(j);
+        while (hasLeft(j)) {
+            // the most extreme of the children and grandchildren of j
+            int m = left(j);
+            int last = Math.min(right(j), size() - 1);
+            for (int c = m + 1; c <= last; c++)
+                if (above(c, m, min)) m = c;
+            if (hasLeft(left(j))) {
+                last = Math.min(right(right(j)), size() - 1);
+                for (int g = left(left(j)); g <= last; g++)
+                    if (above(g, m, min)) m = g;
+            }
+            if (!above(m, j, min)) break;
+            swap(j, m);
+            levels++;
+            if (m <= right(j)) break;       // a child has no lower descendants
+            int p = parent(m);
+            if (above(p, m, min))           // keep the level between in order
+                swap(m, p);
+            j = m;
+        }
+        metrics.recordDownheap(levels);
+    }
+
+    /** Restores heap order from the root after a removal. */
+    protected void downheapFromRoot() {
+        downheap(0);
+    }
+
+    /**
+     * Grows the heap array, if necessary, to hold the given number of entries
+     * @param capacity  the number of entries that must fit
+     * @throws IllegalStateException if a bounded heap would have to grow
+     */
+    protected void ensureCapacity(int capacity) throws IllegalStateException {
+        if (this.capacity >= 0 && capacity > this.capacity)
+            throw new IllegalStateException("Heap is full");
+        super.ensureCapacity(capacity);
+    }
+
+    /** Returns the index of a maximal entry of a nonempty heap. */
+    private int maxIndex() {
+        if (maxModCount != modCount) {
+            if (size() < 3)
+                maxIndex = size() - 1;
+            else
+                maxIndex = (compare(heap[1], heap[2]) >= 0 ? 1 : 2);
+            maxModCount = modCount;
+        }
+        return maxIndex;
+    }
+
+    /**
+     * Returns (but does not remove) an entry with maximal key (if any)
+     * @return the entry with maximal key
+     */
+    public Entry<K,V> max() {
+        if (isEmpty()) return null;
+        return heap[maxIndex()];
+    }
+
+    /**
+     * Removes and returns an entry with maximal key.
+     * @return the removed entry (or null if empty)
+     */
+    public Entry<K,V> removeMax() {
+        if (isEmpty()) return null;
+        int j = maxIndex();
+        Entry<K,V> answer = heap[j];
+        int last = size() - 1;
+        if (j != last) {
+            swap(j, last);
+            removeLast();
+            downheap(j);
+        }
+        else
+            removeLast();
+        return answer;
+    }
+
+    /**
+     * Inserts a key-value pair and returns the entry created. A full
+     * bounded heap first evicts an entry with maximal key, unless the new
+     * key is not less than it, in which case nothing is inserted.
+     * @param key     the key of the new entry
+     * @param value   the associated value of the new entry
+     * @return the entry storing the new key-value pair (or null if rejected)
+     * @throws IllegalArgumentException if key is not valid
+     */
+    public Entry<K,V> insert(K key, V value) throws IllegalArgumentException {
+        if (!isFull())
+            return super.insert(key, value);
+        checkKey(key);
+        if (compareKeys(key, heap[maxIndex()].getKey()) >= 0)
+            return null;
+        removeMax();
+        return super.insert(key, value);
+    }
+
+    /**
+     * Inserts a new entry for each of the given key-value pairs; a bounded
+     * heap inserts them one at a time, keeping the smallest keys
+     * @param entries  the key-value pairs to be inserted
+     * @throws IllegalArgumentException if a key is not valid
+     */
+    public void addAll(Iterable<? extends Entry<K,V>> entries)
+                                    throws IllegalArgumentException {
+        if (capacity < 0) {
+            super.addAll(entries);
+            return;
+        }
+        for (Entry<K,V> e : entries)
+            insert(e.getKey(), e.getValue());
+    }
+
+    /**
+     * Returns an iterator over the entries in nondecreasing key order, without
+     * removing them. An entry on a min level is the least of its subtree, so
+     * it offers its children and grandchildren, and an entry on a max level
+     * offers nothing. The first k entries take O(k log k) time.
+     * @return the iterator
+     */
+    public Iterator<Entry<K,V>> orderedIterator() {
+        HeapOrderIterator<K,V,Integer> answer = new HeapOrderIterator<K,V,Integer>(
+                (a, b) -> compare(a, b), () -> modCount) {
+            protected Entry<K,V> entryOf(Integer j) { return heap[j]; }
+            protected void offerChildren(Integer j) {
+                if (!isMinLevel(j) || !hasLeft(j)) return;
+                int last = Math.min(right(j), size() - 1);
+                for (int c = left(j); c <= last; c++)
+                    offer(c);
+                if (!hasLeft(left(j))) return;
+                last = Math.min(right(right(j)), size() - 1);
+                for (int g = left(left(j)); g <= last; g++)
+                    offer(g);
+            }
+        };
+        if (!isEmpty()) answer.offer(0);
+        return answer;
+    }
+
+    public static void main(String[] args) {
+        //Only the three passengers with the best priority get standby seats
+        MinMaxHeapPriorityQueue<Integer,String> seats =
+                                        new MinMaxHeapPriorityQueue<>(3);
+        String[] names = {"Joe", "Maria", "Sally", "Bob", "Ann"};
+        int[] priorities = {4, 5, 3, 1, 6};
+        for (int i = 0; i < names.length; i++) {
+            if (seats.isFull() && priorities[i] < seats.max().getKey())
+                System.out.println(seats.max().getValue() + " loses a seat");
+            if (seats.insert(priorities[i], names[i]) == null)
+                System.out.println(names[i] + " stays on the waiting list");
+        }
+        System.out.println(seats.max().getValue() + " is boarded last");
+        while (!seats.isEmpty())
+            System.out.println(seats.removeMin().getValue() +
+                               " boarded the plane");
+    }
+}
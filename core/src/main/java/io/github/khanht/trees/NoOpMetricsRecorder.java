@@ -0,0 +1,26 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+/**
+ * A metrics recorder that ignores everything. It is the recorder of every
+ * priority queue until another is set, and while it is the only recorder
+ * class in use the JIT inlines its empty methods away entirely.
+ */
+public final class NoOpMetricsRecorder implements MetricsRecorder {
+    /** The single instance of the no-op recorder. */
+    public static final NoOpMetricsRecorder INSTANCE = new NoOpMetricsRecorder();
+
+    private NoOpMetricsRecorder() {}
+
+    public void recordInsert() {}
+    public void recordRemoveMin() {}
+    public void recordMin() {}
+    public void recordComparison() {}
+    public void recordSwap() {}
+    public void recordUpheap(int levels) {}
+    public void recordDownheap(int levels) {}
+    public void recordSize(int size) {}
+}
@@ -0,0 +1,364 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An implementation of an adaptable priority queue using a pairing heap.
+ * Insert, meld and decreasing a key take O(1) time; removeMin, remove and
+ * increasing a key take O(log n) amortized time. Each entry is itself the
+ * node of the heap-ordered tree, kept as a list of children linked through
+ * sibling pointers.
+ */
+public class PairingHeapPriorityQueue<K,V> extends AbstractPriorityQueue<K,V>
+                                    implements AdaptablePriorityQueue<K,V> {
+    //---------------- nested Owner class ----------------
+    /**
+     * Identifies the heap an entry belongs to. When a heap is melded into
+     * another, its owner is forwarded to the other's, so the entries it gave
+     * up are recognized without visiting them.
+     */
+    private static class Owner {
+        private Owner forward = null;
+    }
+    //----------- end of nested Owner class -----------
+
+    //---------------- nested PairingNode class ----------------
+    /** An entry that is also a node of the pairing heap. */
+    protected static class PairingNode<K,V> extends PQEntry<K,V> {
+        private Owner owner;               // null once removed
+        private PairingNode<K,V> child;    // first child
+        private PairingNode<K,V> sibling;  // next sibling
+        private PairingNode<K,V> prev;     // previous sibling, or parent if first
+        public PairingNode(K key, V value, Owner owner) {
+            super(key, value);
+            this.owner = owner;
+        }
+    }
+    //----------- end of nested PairingNode class -----------
+
+    private Owner owner = new Owner();
+    private PairingNode<K,V> root = null;
+    private int size = 0;
+    /** The number of changes to the heap, for failing iterators fast. */
+    private int modCount = 0;
+
+    //constructors
+    public PairingHeapPriorityQueue() { super(); }
+    public PairingHeapPriorityQueue(Comparator<K> comp) { super(comp); }
+    public PairingHeapPriorityQueue(Iterable<? extends Entry<K,V>> entries) {
+        this(entries, new DefaultComparator<K>());
+    }
+    public PairingHeapPriorityQueue(Iterable<? extends Entry<K,V>> entries,
+                                    Comparator<K> comp) {
+        super(comp);
+        addAll(entries);
+    }
+
+    /** Returns the owner that o has been forwarded to, shortening the path. */
+    private static Owner resolve(Owner o) {
+        Owner current = o;
+        while (current.forward != null)
+            current = current.forward;
+        while (o != current) {
+            Owner next = o.forward;
+            o.forward = current;
+            o = next;
+        }
+        return current;
+    }
+
+    /**
+     * Validates an entry to ensure it is a node still in this heap
+     * @param entry  the entry to be validated
+     * @return the entry as a node
+     * @throws IllegalArgumentException if entry is not valid
+     */
+    protected PairingNode<K,V> validate(Entry<K,V> entry)
+                                    throws IllegalArgumentException {
+        if (!(entry instanceof PairingNode))
+            throw new IllegalArgumentException("Invalid entry");
+        PairingNode<K,V> node = (PairingNode<K,V>) entry;
+        if (node.owner == null)
+            throw new IllegalArgumentException("Invalid entry");
+        node.owner = resolve(node.owner);
+        if (node.owner != owner)
+            throw new IllegalArgumentException("Invalid entry");
+        return node;
+    }
+
+    /**
+     * @return size of heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Links two heap-ordered trees, making the root with the larger key the
+     * first child of the other
+     * @param a  the root of the first tree (or null)
+     * @param b  the root of the second tree (or null)
+     * @return the root of the combined tree
+     */
+    private PairingNode<K,V> link(PairingNode<K,V> a, PairingNode<K,V> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (compare(b, a) < 0) {
+            PairingNode<K,V> temp = a;
+            a = b;
+            b = temp;
+        }
+        b.prev = a;
+        b.sibling = a.child;
+        if (a.child != null)
+            a.child.prev = b;
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * Combines a list of sibling trees into one by the two-pass method:
+     * link them in pairs from left to right, then link the pairs from right
+     * to left
+     * @param first  the first tree of the list (or null)
+     * @return the root of the combined tree (or null)
+     */
+    private PairingNode<K,V> combineSiblings(PairingNode<K,V> first) {
+        PairingNode<K,V> pairs = null;   // stack of linked pairs, via sibling
+        PairingNode<K,V> a = first;
+        while (a != null) {
+            PairingNode<K,V> b = a.sibling;
+            PairingNode<K,V> next = (b == null ? null : b.sibling);
+            a.sibling = a.prev = null;
+            if (b != null) {
+                b.sibling = b.prev = null;
+                a = link(a, b);
+            }
+            a.sibling = pairs;
+            pairs = a;
+            a = next;
+        }
+        PairingNode<K,V> result = null;
+        while (pairs != null) {
+            PairingNode<K,V> next = pairs.sibling;
+            pairs.sibling = null;
+            result = link(pairs, result);
+            pairs = next;
+        }
+        return result;
+    }
+
+    /**
+     * Detaches the subtree rooted at a non-root node from its parent
+     * @param node  the node to be cut
+     */
+    private void cut(PairingNode<K,V> node) {
+        if (node.prev.child == node)
+            node.prev.child = node.sibling;
+        else
+            node.prev.sibling = node.sibling;
+        if (node.sibling != null)
+            node.sibling.prev = node.prev;
+        node.prev = node.sibling = null;
+    }
+
+    /**
+     * Returns (but does not remove) an entry with minimal key (if any)
+     * @return the entry with minimal key
+     */
+    public Entry<K,V> min() {
+        metrics.recordMin();
+        return root;
+    }
+
+    /**
+     * Inserts a key-value pair and returns the entry created.
+     * @param key     the key of the new entry
+     * @param value   the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if key is not valid
+     */
+    public Entry<K,V> insert(K key, V value) throws IllegalArgumentException {
+        checkKey(key);
+        metrics.recordInsert();
+        PairingNode<K,V> newest =
+                            initEntry(new PairingNode<>(key, value, owner));
+        modCount++;
+        root = link(root, newest);
+        size++;
+        metrics.recordSize(size);
+        return newest;
+    }
+
+    /**
+     * Inserts a new entry for each of the given key-value pairs
+     * @param entries  the key-value pairs to be inserted
+     * @throws IllegalArgumentException if a key is not valid
+     */
+    public void addAll(Iterable<? extends Entry<K,V>> entries)
+                                    throws IllegalArgumentException {
+        for (Entry<K,V> e : entries)
+            insert(e.getKey(), e.getValue());
+    }
+
+    /**
+     * Removes and returns an entry with minimal key.
+     * @return the removed entry (or null if empty)
+     */
+    public Entry<K,V> removeMin() {
+        metrics.recordRemoveMin();
+        if (root == null) return null;
+        modCount++;
+        PairingNode<K,V> answer = root;
+        root = combineSiblings(answer.child);
+        answer.child = null;
+        answer.owner = null;
+        size--;
+        return answer;
+    }
+
+    /**
+     * Removes the given entry from the priority queue
+     * @param entry  an entry of this priority queue
+     * @throws IllegalArgumentException if entry is not valid
+     */
+    public void remove(Entry<K,V> entry) throws IllegalArgumentException {
+        PairingNode<K,V> node = validate(entry);
+        if (node == root) {
+            removeMin();
+            return;
+        }
+        modCount++;
+        cut(node);
+        root = link(root, combineSiblings(node.child));
+        node.child = null;
+        node.owner = null;
+        size--;
+    }
+
+    /**
+     * Replaces the key of an entry. A smaller key only relinks the entry's
+     * subtree with the root; a larger key also splits off its children.
+     * @param entry  an entry of this priority queue
+     * @param key    the new key
+     * @throws IllegalArgumentException if entry or key is not valid
+     */
+    public void replaceKey(Entry<K,V> entry, K key)
+                                    throws IllegalArgumentException {
+        PairingNode<K,V> node = validate(entry);
+        checkKey(key);
+        boolean increased = compareKeys(key, node.getKey()) > 0;
+        modCount++;
+        setKey(node, key);
+        if (node != root)
+            cut(node);
+        else if (!increased)
+            return;
+        else
+            root = null;
+        if (increased) {
+            PairingNode<K,V> children = combineSiblings(node.child);
+            node.child = null;
+            root = link(root, children);
+        }
+        root = link(root, node);
+    }
+
+    /**
+     * Replaces the value of an entry
+     * @param entry  an entry of this priority queue
+     * @param value  the new value
+     * @throws IllegalArgumentException if entry is not valid
+     */
+    public void replaceValue(Entry<K,V> entry, V value)
+                                    throws IllegalArgumentException {
+        PairingNode<K,V> node = validate(entry);
+        node.setValue(value);
+    }
+
+    /**
+     * Moves all entries of another pairing heap into this one in O(1) time,
+     * leaving the other heap empty. Entries of the other heap remain valid
+     * as entries of this heap. Both heaps must order keys the same way, and
+     * must agree on stability and use the same sort key function object.
+     * Each heap numbers its own entries, so in a stable heap equal keys that
+     * came from the same heap keep their order, but equal keys from
+     * different heaps are ordered arbitrarily. Entries inserted after the
+     * meld follow all entries of both heaps with equal keys.
+     * @param other  the heap to be melded into this one
+     * @throws IllegalArgumentException if other is null or this heap, or
+     * differs in stability or sort key
+     */
+    public void meld(PairingHeapPriorityQueue<K,V> other)
+                                    throws IllegalArgumentException {
+        if (other == null) throw new IllegalArgumentException("Null heap");
+        if (other == this) throw new IllegalArgumentException("Cannot meld with itself");
+        if (other.isStable() != isStable())
+            throw new IllegalArgumentException("Heaps differ in stability");
+        if (other.getSortKey() != getSortKey())
+            throw new IllegalArgumentException("Heaps differ in sort key");
+        modCount++;
+        other.modCount++;
+        root = link(root, other.root);
+        size += other.size;
+        advanceSequence(other);
+        metrics.recordSize(size);
+        other.owner.forward = owner;
+        other.owner = new Owner();
+        other.root = null;
+        other.size = 0;
+    }
+
+    /**
+     * Returns an iterator over the entries in preorder
+     * @return the iterator
+     */
+    public Iterator<Entry<K,V>> iterator() {
+        return new Iterator<Entry<K,V>>() {
+            private final ArrayDeque<PairingNode<K,V>> stack = new ArrayDeque<>();
+            private final int expectedModCount = modCount;
+            { if (root != null) stack.push(root); }
+
+            public boolean hasNext() {
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return !stack.isEmpty();
+            }
+
+            public Entry<K,V> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                PairingNode<K,V> node = stack.pop();
+                if (node.sibling != null) stack.push(node.sibling);
+                if (node.child != null) stack.push(node.child);
+                return node;
+            }
+        };
+    }
+
+    public static void main(String[] args) {
+        //Two standby lists combined when a second flight is cancelled
+        PairingHeapPriorityQueue<Integer,String> flight1 =
+                                        new PairingHeapPriorityQueue<>();
+        PairingHeapPriorityQueue<Integer,String> flight2 =
+                                        new PairingHeapPriorityQueue<>();
+        flight1.insert(4, "Joe");
+        Entry<Integer,String> maria = flight1.insert(5, "Maria");
+        flight2.insert(3, "Sally");
+        Entry<Integer,String> bob = flight2.insert(6, "Bob");
+        flight1.meld(flight2);
+        //Bob's entry moved with him and can still be upgraded
+        flight1.replaceKey(bob, 1);
+        flight1.remove(maria);
+        while (!flight1.isEmpty())
+            System.out.println(flight1.removeMin().getValue() +
+                               " boarded the plane");
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.khanht.trees;
+/*
+ * From Data Structures and Algorithms in Java, Sixth Edition, Goodrich et al.
+*/
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+ /**
+ * Interface for the priority queue ADT. Iterating over a priority queue
+ * reports its entries without removing them, in no particular order.
+ */
+
+public interface PriorityQueue<K,V> extends Iterable<Entry<K,V>> {
+
+  /**
+   * Returns the number of items in the priority queue.
+   * @return number of items
+   */
+  int size();
+
+  /**
+   * Tests whether the priority queue is empty.
+   * @return true if the priority queue is empty, false otherwise
+   */
+  boolean isEmpty();
+
+  /**
+   * Inserts a key-value pair and returns the entry created.
+   * @param key     the key of the new entry
+   * @param value   the associated value of the new entry
+   * @return the entry storing the new key-value pair
+   * @throws IllegalArgumentException if the key is unacceptable for this queue
+   */
+  Entry<K,V> insert(K key, V value) throws IllegalArgumentException;
+
+  /**
+   * Returns (but does not remove) an entry with minimal key.
+   * @return entry having a minimal key (or null if empty)
+   */
+  Entry<K,V> min();
+
+  /**
+   * Removes and returns an entry with minimal key.
+   * @return the removed entry (or null if empty)
+   */
+  Entry<K,V> removeMin();
+
+  /**
+   * Removes and returns up to k entries with minimal keys.
+   * @param k  the maximum number of entries to remove
+   * @return the removed entries in nondecreasing key order
+   * @throws IllegalArgumentException if k is negative
+   */
+  List<Entry<K,V>> removeMin(int k) throws IllegalArgumentException;
+
+  /**
+   * Removes up to max entries with minimal keys and adds them to the given
+   * collection in nondecreasing key order.
+   * @param c    the collection to transfer entries into
+   * @param max  the maximum number of entries to transfer
+   * @return the number of entries transferred
+   * @throws IllegalArgumentException if c is null or max is negative
+   */
+  int drainTo(Collection<? super Entry<K,V>> c, int max)
+                                    throws IllegalArgumentException;
+
+  /**
+   * Returns a sequential stream of the entries, in no particular order.
+   * @return the stream
+   */
+  default Stream<Entry<K,V>> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
+  /**
+   * Returns a possibly parallel stream of the entries, in no particular order.
+   * @return the stream
+   */
+  default Stream<Entry<K,V>> parallelStream() {
+    return StreamSupport.stream(spliterator(), true);
+  }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.Comparator;
+
+/**
+ * Creates priority queues without naming their implementation, so that the
+ * heap used by callers can be switched in one place. The default kind is
+ * read from the system property {@value #KIND_PROPERTY} (LINKED if unset).
+ */
+public final class PriorityQueueFactory {
+
+    /** The priority queue implementations that can be created. */
+    public enum Kind {
+        /** A {@link LinkedHeapPriorityQueue}. */
+        LINKED,
+        /** An {@link ArrayHeapPriorityQueue}. */
+        ARRAY,
+        /** A {@link DaryHeapPriorityQueue} with four children per entry. */
+        DARY4,
+        /** A {@link DaryHeapPriorityQueue} with eight children per entry. */
+        DARY8,
+        /** A {@link PairingHeapPriorityQueue}. */
+        PAIRING,
+        /** An unbounded {@link MinMaxHeapPriorityQueue}. */
+        MINMAX
+    }
+
+    /** System property naming the default kind of priority queue. */
+    public static final String KIND_PROPERTY = "io.github.khanht.trees.priorityQueue";
+
+    private static volatile Kind defaultKind =
+                        parseKind(System.getProperty(KIND_PROPERTY));
+
+    private PriorityQueueFactory() {}
+
+    /** Returns the kind named by s, or LINKED if s is not a known kind. */
+    private static Kind parseKind(String s) {
+        if (s == null) return Kind.LINKED;
+        try {
+            return Kind.valueOf(s.trim().toUpperCase());
+        }
+        catch (IllegalArgumentException e) {
+            return Kind.LINKED;
+        }
+    }
+
+    /**
+     * @return the kind of priority queue created when none is given
+     */
+    public static Kind getDefaultKind() {
+        return defaultKind;
+    }
+
+    /**
+     * Changes the kind of priority queue created when none is given
+     * @param kind  the new default kind
+     * @throws IllegalArgumentException if kind is null
+     */
+    public static void setDefaultKind(Kind kind)
+                                        throws IllegalArgumentException {
+        if (kind == null) throw new IllegalArgumentException("Null kind");
+        defaultKind = kind;
+    }
+
+    /**
+     * Creates an empty priority queue of the default kind that uses the
+     * natural ordering of its keys.
+     * @return the new priority queue
+     */
+    public static <K,V> PriorityQueue<K,V> create() {
+        return create(defaultKind);
+    }
+
+    /**
+     * Creates an empty priority queue of the default kind
+     * @param comp  the comparator defining the ordering of keys
+     * @return the new priority queue
+     */
+    public static <K,V> PriorityQueue<K,V> create(Comparator<K> comp) {
+        return create(defaultKind, comp);
+    }
+
+    /**
+     * Creates an empty priority queue that uses the natural ordering of keys
+     * @param kind  the kind of priority queue to create
+     * @return the new priority queue
+     */
+    public static <K,V> PriorityQueue<K,V> create(Kind kind) {
+        return create(kind, new DefaultComparator<K>());
+    }
+
+    /**
+     * Creates an empty priority queue
+     * @param kind  the kind of priority queue to create
+     * @param comp  the comparator defining the ordering of keys
+     * @return the new priority queue
+     * @throws IllegalArgumentException if kind is null
+     */
+    public static <K,V> PriorityQueue<K,V> create(Kind kind,
+                            Comparator<K> comp) throws IllegalArgumentException {
+        if (kind == null) throw new IllegalArgumentException("Null kind");
+        switch (kind) {
+            case ARRAY:
+                return new ArrayHeapPriorityQueue<>(comp);
+            case DARY4:
+                return new DaryHeapPriorityQueue<>(4, comp);
+            case DARY8:
+                return new DaryHeapPriorityQueue<>(8, comp);
+            case PAIRING:
+                return new PairingHeapPriorityQueue<>(comp);
+            case MINMAX:
+                return new MinMaxHeapPriorityQueue<>(comp);
+            case LINKED:
+            default:
+                return new LinkedHeapPriorityQueue<>(comp);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+/** An immutable snapshot of the counters kept for a priority queue. */
+public class PriorityQueueStats {
+    private final long inserts;
+    private final long removeMins;
+    private final long mins;
+    private final long comparisons;
+    private final long swaps;
+    private final int maxSize;
+    private final long[] upheapHistogram;
+    private final long[] downheapHistogram;
+
+    public PriorityQueueStats(long inserts, long removeMins, long mins,
+                              long comparisons, long swaps, int maxSize,
+                              long[] upheapHistogram, long[] downheapHistogram) {
+        this.inserts = inserts;
+        this.removeMins = removeMins;
+        this.mins = mins;
+        this.comparisons = comparisons;
+        this.swaps = swaps;
+        this.maxSize = maxSize;
+        this.upheapHistogram = upheapHistogram.clone();
+        this.downheapHistogram = downheapHistogram.clone();
+    }
+
+    // accessor methods
+    public long getInserts() { return inserts; }
+    public long getRemoveMins() { return removeMins; }
+    public long getMins() { return mins; }
+    public long getComparisons() { return comparisons; }
+    public long getSwaps() { return swaps; }
+    public int getMaxSize() { return maxSize; }
+    /** Returns the number of upheaps that moved an entry by each number of levels. */
+    public long[] getUpheapHistogram() { return upheapHistogram.clone(); }
+    /** Returns the number of downheaps that moved an entry by each number of levels. */
+    public long[] getDownheapHistogram() { return downheapHistogram.clone(); }
+
+    /** Returns the mean number of levels moved by an upheap. */
+    public double getMeanUpheapLevels() { return mean(upheapHistogram); }
+    /** Returns the mean number of levels moved by a downheap. */
+    public double getMeanDownheapLevels() { return mean(downheapHistogram); }
+
+    private static double mean(long[] histogram) {
+        long count = 0, total = 0;
+        for (int levels = 0; levels < histogram.length; levels++) {
+            count += histogram[levels];
+            total += levels * histogram[levels];
+        }
+        return (count == 0 ? 0 : (double) total / count);
+    }
+
+    public String toString() {
+        return String.format("inserts=%d removeMins=%d mins=%d comparisons=%d "
+                + "swaps=%d maxSize=%d meanUpheap=%.2f meanDownheap=%.2f",
+                inserts, removeMins, mins, comparisons, swaps, maxSize,
+                getMeanUpheapLevels(), getMeanDownheapLevels());
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/** A periodic JFR event carrying the counters of one priority queue. */
+@Name("io.github.khanht.trees.PriorityQueueStats")
+@Label("Priority Queue Statistics")
+@Category("Trees")
+@Description("Operation and comparison counts of an instrumented priority queue")
+@Period("1 s")
+@StackTrace(false)
+class PriorityQueueStatsEvent extends Event {
+    @Label("Queue")
+    String queue;
+    @Label("Inserts")
+    long inserts;
+    @Label("Remove Mins")
+    long removeMins;
+    @Label("Mins")
+    long mins;
+    @Label("Comparisons")
+    long comparisons;
+    @Label("Swaps")
+    long swaps;
+    @Label("Max Size")
+    int maxSize;
+    @Label("Mean Upheap Levels")
+    double meanUpheapLevels;
+    @Label("Mean Downheap Levels")
+    double meanDownheapLevels;
+}
@@ -0,0 +1,21 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+/** Management interface exposing the counters of a priority queue over JMX. */
+public interface PriorityQueueStatsMXBean {
+    long getInserts();
+    long getRemoveMins();
+    long getMins();
+    long getComparisons();
+    long getSwaps();
+    int getMaxSize();
+    /** Returns the number of upheaps that moved an entry by each number of levels. */
+    long[] getUpheapHistogram();
+    /** Returns the number of downheaps that moved an entry by each number of levels. */
+    long[] getDownheapHistogram();
+    /** Clears all counters. */
+    void reset();
+}
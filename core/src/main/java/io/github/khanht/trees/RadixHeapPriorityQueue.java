@@ -0,0 +1,229 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A monotone priority queue for long keys, such as the ticks of a timer or
+ * an event simulation, implemented as a radix heap. Keys may never be less
+ * than the key of the last entry removed; inserting one throws.
+ * <p>
+ * Entries are kept in 65 unordered buckets by the highest bit in which their
+ * key differs from that last removed key: bucket 0 holds keys equal to it
+ * and bucket b keys differing first in bit b-1. Insert appends to a bucket
+ * in O(1) without comparing keys. When bucket 0 runs out, removeMin finds
+ * the least key in the first nonempty bucket and redistributes that bucket
+ * into lower ones; an entry only ever moves to lower buckets, so each is
+ * moved at most 64 times over its life and removeMin takes amortized time
+ * proportional to the number of bits in which keys differ, independent of
+ * the number of entries.
+ */
+public class RadixHeapPriorityQueue<V> extends AbstractPriorityQueue<Long,V> {
+
+    /** The number of buckets, one per possible highest differing bit. */
+    private static final int BUCKETS = 65;
+    /** Initial capacity of each bucket when first used. */
+    private static final int BUCKET_CAPACITY = 4;
+
+    private final Entry<Long,V>[][] buckets = newBuckets();
+    private final int[] counts = new int[BUCKETS];
+    private int size = 0;
+    /** The key of the last entry removed, which no key may be less than. */
+    private long last = Long.MIN_VALUE;
+    /** An entry with minimal key outside bucket 0 (or null if unknown). */
+    private Entry<Long,V> cachedMin = null;
+    /** The number of changes to the queue, for failing iterators fast. */
+    private int modCount = 0;
+
+    /** Creates an empty queue accepting any key. */
+    public RadixHeapPriorityQueue() { super(); }
+
+    /**
+     *
+     * @return size of the queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the key of the last entry removed (Long.MIN_VALUE if none),
+     * the least key that can be inserted
+     */
+    public long lastRemovedKey() {
+        return last;
+    }
+
+    /**
+     * Only turning stability off is supported, as a no-op: entries with
+     * equal keys share an unordered bucket
+     * @param stable  whether the queue is stable
+     * @throws UnsupportedOperationException if stable is true
+     */
+    public void setStable(boolean stable) throws UnsupportedOperationException {
+        if (stable)
+            throw new UnsupportedOperationException("Radix heap cannot be stable");
+    }
+
+    /** Returns the bucket of a key, which must not be less than last. */
+    private int bucketOf(long key) {
+        return 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    /** Creates the table of buckets, each created when first used. */
+    @SuppressWarnings("unchecked")
+    private static <V> Entry<Long,V>[][] newBuckets() {
+        return (Entry<Long,V>[][]) new Entry<?,?>[BUCKETS][];
+    }
+
+    /** Creates a bucket holding up to n entries. */
+    @SuppressWarnings("unchecked")
+    private static <V> Entry<Long,V>[] newBucket(int n) {
+        return (Entry<Long,V>[]) new Entry<?,?>[n];
+    }
+
+    /** Appends an entry to bucket b, growing the bucket if necessary. */
+    private void push(int b, Entry<Long,V> e) {
+        Entry<Long,V>[] bucket = buckets[b];
+        if (bucket == null)
+            bucket = buckets[b] = newBucket(BUCKET_CAPACITY);
+        else if (counts[b] == bucket.length)
+            bucket = buckets[b] = Arrays.copyOf(bucket, 2 * bucket.length);
+        bucket[counts[b]++] = e;
+    }
+
+    /**
+     * Inserts a key-value pair and returns the entry created.
+     * @param key     the key of the new entry
+     * @param value   the associated value of the new entry
+     * @return the entry storing the new key-value pair
+     * @throws IllegalArgumentException if key is null or less than the key
+     * of the last entry removed
+     */
+    public Entry<Long,V> insert(Long key, V value)
+                                    throws IllegalArgumentException {
+        if (key == null) throw new IllegalArgumentException("Null key");
+        long k = key;
+        if (k < last)
+            throw new IllegalArgumentException("Key less than last removed");
+        metrics.recordInsert();
+        Entry<Long,V> newest = new PQEntry<>(key, value);
+        int b = bucketOf(k);
+        push(b, newest);
+        if (b != 0 && cachedMin != null && k < cachedMin.getKey())
+            cachedMin = newest;
+        size++;
+        modCount++;
+        metrics.recordSize(size);
+        return newest;
+    }
+
+    /**
+     * Returns the first nonempty bucket after bucket 0 and caches an entry
+     * with minimal key, which that bucket holds
+     * @return the index of the bucket
+     */
+    private int firstBucket() {
+        int b = 1;
+        while (counts[b] == 0)
+            b++;
+        if (cachedMin == null) {
+            Entry<Long,V>[] bucket = buckets[b];
+            Entry<Long,V> least = bucket[0];
+            for (int j = 1; j < counts[b]; j++)
+                if (bucket[j].getKey() < least.getKey())
+                    least = bucket[j];
+            cachedMin = least;
+        }
+        return b;
+    }
+
+    /**
+     * Returns (but does not remove) an entry with minimal key (if any)
+     * @return the entry with minimal key
+     */
+    public Entry<Long,V> min() {
+        metrics.recordMin();
+        if (size == 0) return null;
+        if (counts[0] > 0) return buckets[0][counts[0] - 1];
+        firstBucket();
+        return cachedMin;
+    }
+
+    /**
+     * Removes and returns an entry with minimal key.
+     * @return the removed entry (or null if empty)
+     */
+    public Entry<Long,V> removeMin() {
+        metrics.recordRemoveMin();
+        if (size == 0) return null;
+        if (counts[0] == 0) {
+            // make the least key the new base and move its bucket down
+            int b = firstBucket();
+            last = cachedMin.getKey();
+            cachedMin = null;
+            Entry<Long,V>[] bucket = buckets[b];
+            int count = counts[b];
+            counts[b] = 0;
+            for (int j = 0; j < count; j++) {
+                push(bucketOf(bucket[j].getKey()), bucket[j]);
+                bucket[j] = null;
+            }
+        }
+        Entry<Long,V> answer = buckets[0][--counts[0]];
+        buckets[0][counts[0]] = null;
+        size--;
+        modCount++;
+        return answer;
+    }
+
+    /**
+     * Returns an iterator over the entries, bucket by bucket
+     * @return the iterator
+     */
+    public Iterator<Entry<Long,V>> iterator() {
+        return new Iterator<Entry<Long,V>>() {
+            private final int expectedModCount = modCount;
+            private int bucket = 0;
+            private int index = 0;
+
+            public boolean hasNext() {
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                while (bucket < BUCKETS && index == counts[bucket]) {
+                    bucket++;
+                    index = 0;
+                }
+                return bucket < BUCKETS;
+            }
+
+            public Entry<Long,V> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return buckets[bucket][index++];
+            }
+        };
+    }
+
+    public static void main(String[] args) {
+        //Standby events at the gate, keyed by the minute they happen
+        RadixHeapPriorityQueue<String> events = new RadixHeapPriorityQueue<>();
+        events.insert(40L, "Joe checks in");
+        events.insert(55L, "Maria checks in");
+        events.insert(30L, "Sally checks in");
+        events.insert(10L, "Bob checks in");
+        while (!events.isEmpty()) {
+            Entry<Long,String> e = events.removeMin();
+            System.out.println("minute " + e.getKey() + ": " + e.getValue());
+            //each check-in schedules a boarding ten minutes later
+            if (e.getValue().endsWith("checks in"))
+                events.insert(e.getKey() + 10, e.getValue().replace(
+                                            "checks in", "boarded the plane"));
+        }
+    }
+}
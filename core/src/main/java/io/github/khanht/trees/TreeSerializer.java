@@ -0,0 +1,241 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+
+/**
+ * Reads and writes binary trees in a compact binary format. A file holds,
+ * in order:
+ * <ul>
+ * <li>a header: a magic number, the format version and the number of nodes;
+ * <li>the shape: two bits per node in preorder, telling whether it has a
+ *     left and a right child;
+ * <li>the payload: each element in preorder as a length (-1 for null)
+ *     followed by the bytes written by a {@link Codec};
+ * <li>the index: for each node in preorder, its parent, its right child
+ *     and the offset of its element in the payload (-1 where absent);
+ * <li>a trailer: the offsets of the payload and the index, and the magic
+ *     number again.
+ * </ul>
+ * The header, shape and payload are enough to rebuild a tree in one pass
+ * over a stream. The index lets {@link MappedBinaryTree} find any node of a
+ * memory-mapped file directly.
+ */
+public final class TreeSerializer {
+
+    static final int MAGIC = 0x41334254;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 12;
+    static final int INDEX_ENTRY_BYTES = 12;
+    static final int TRAILER_BYTES = 20;
+    /** Marks an absent parent, right child, or null element. */
+    static final int NONE = -1;
+
+    private TreeSerializer() {}
+
+    /** Returns the number of bytes of the shape of a tree of n nodes. */
+    static long shapeBytes(int n) { return (2L * n + 7) / 8; }
+
+    /** Creates an array of n positions. */
+    @SuppressWarnings("unchecked")
+    private static <E> Position<E>[] newPositions(int n) {
+        return (Position<E>[]) new Position<?>[n];
+    }
+
+    /**
+     * Writes a tree to a stream. The stream is flushed but not closed.
+     * @param tree   the tree to be written
+     * @param codec  the codec converting elements to bytes
+     * @param out    the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public static <E> void write(BinaryTree<E> tree, Codec<E> codec,
+                                 OutputStream out) throws IOException {
+        int n = tree.size();
+        // first pass: number the nodes in preorder and record the shape
+        Position<E>[] order = newPositions(n);
+        int[] parent = new int[n];
+        int[] right = new int[n];
+        byte[] shape = new byte[(int) shapeBytes(n)];
+        ArrayDeque<Position<E>> stack = new ArrayDeque<>();
+        // the parent of each stacked position times two, plus one if the
+        // position is a right child
+        ArrayDeque<Integer> parents = new ArrayDeque<>();
+        if (!tree.isEmpty()) {
+            stack.push(tree.root());
+            parents.push(NONE);
+        }
+        int count = 0;
+        while (!stack.isEmpty()) {
+            if (count == n)
+                throw new IllegalStateException("Tree changed while writing");
+            Position<E> p = stack.pop();
+            int link = parents.pop();
+            int above = (link == NONE ? NONE : link >> 1);
+            int i = count++;
+            order[i] = p;
+            parent[i] = above;
+            right[i] = NONE;
+            if (link != NONE && (link & 1) != 0)
+                right[above] = i;
+            Position<E> l = tree.left(p);
+            Position<E> r = tree.right(p);
+            if (l != null) shape[i >>> 2] |= (byte) (2 << 2 * (i & 3));
+            if (r != null) shape[i >>> 2] |= (byte) (1 << 2 * (i & 3));
+            if (r != null) { stack.push(r); parents.push(2*i + 1); }
+            if (l != null) { stack.push(l); parents.push(2*i); }
+        }
+        if (count != n)
+            throw new IllegalStateException("Tree changed while writing");
+
+        DataOutputStream data = new DataOutputStream(
+                                            new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(n);
+        data.write(shape);
+        // second pass: the payload, noting where each element starts
+        int[] offset = new int[n];
+        long payload = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        for (int i = 0; i < n; i++) {
+            E e = order[i].getElement();
+            if (payload > Integer.MAX_VALUE)
+                throw new IOException("Payload too large");
+            offset[i] = (int) payload;
+            if (e == null) {
+                data.writeInt(NONE);
+                payload += 4;
+                continue;
+            }
+            buffer = encode(codec, e, buffer);
+            data.writeInt(buffer.position());
+            data.write(buffer.array(), 0, buffer.position());
+            payload += 4 + buffer.position();
+        }
+        long payloadStart = HEADER_BYTES + shape.length;
+        long indexStart = payloadStart + payload;
+        for (int i = 0; i < n; i++) {
+            data.writeInt(parent[i]);
+            data.writeInt(right[i]);
+            data.writeInt(offset[i]);
+        }
+        data.writeLong(payloadStart);
+        data.writeLong(indexStart);
+        data.writeInt(MAGIC);
+        data.flush();
+    }
+
+    /**
+     * Encodes an element, growing the buffer until it fits
+     * @return the buffer holding the element from 0 to its position
+     */
+    private static <E> ByteBuffer encode(Codec<E> codec, E e, ByteBuffer buffer) {
+        while (true) {
+            buffer.clear();
+            try {
+                codec.encode(e, buffer);
+                return buffer;
+            }
+            catch (BufferOverflowException overflow) {
+                if (buffer.capacity() > Integer.MAX_VALUE / 2)
+                    throw new IllegalArgumentException("Element too large");
+                buffer = ByteBuffer.allocate(2 * buffer.capacity());
+            }
+        }
+    }
+
+    /**
+     * Rebuilds a tree from a stream in one pass over the header, shape and
+     * payload; the index is not read. The stream is not closed.
+     * @param in     the stream to read from
+     * @param codec  the codec converting bytes to elements
+     * @return the tree read
+     * @throws IOException if the stream cannot be read or is not a tree
+     */
+    public static <E> LinkedBinaryTree<E> read(InputStream in, Codec<E> codec)
+                                    throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC)
+            throw new IOException("Not a tree stream");
+        if (data.readInt() != VERSION)
+            throw new IOException("Unsupported tree version");
+        int n = data.readInt();
+        if (n < 0) throw new IOException("Corrupt tree stream");
+        // readNBytes allocates only as bytes arrive, so a corrupt count or
+        // length meets the end of the stream instead of a huge array
+        byte[] shape = data.readNBytes((int) shapeBytes(n));
+        if (shape.length < shapeBytes(n))
+            throw new IOException("Truncated tree stream");
+
+        LinkedBinaryTree<E> tree = new LinkedBinaryTree<>();
+        // nodes whose right child is still to come, nearest last
+        ArrayDeque<Position<E>> awaitingRight = new ArrayDeque<>();
+        Position<E> previous = null;
+        boolean previousHasLeft = false;
+        byte[] bytes = new byte[256];
+        try {
+            for (int i = 0; i < n; i++) {
+                int length = data.readInt();
+                E e = null;
+                if (length >= 0) {
+                    if (length > bytes.length) {
+                        bytes = data.readNBytes(length);
+                        if (bytes.length < length) throw new EOFException();
+                    }
+                    else
+                        data.readFully(bytes, 0, length);
+                    e = codec.decode(ByteBuffer.wrap(bytes, 0, length).slice());
+                }
+                else if (length != NONE)
+                    throw new IOException("Corrupt tree stream");
+                Position<E> p;
+                if (i == 0)
+                    p = tree.addRoot(e);
+                else if (previousHasLeft)
+                    p = tree.addLeft(previous, e);
+                else if (!awaitingRight.isEmpty())
+                    p = tree.addRight(awaitingRight.pop(), e);
+                else
+                    throw new IOException("Corrupt tree stream");
+                int bits = shape[i >>> 2] >> 2 * (i & 3);
+                if ((bits & 1) != 0) awaitingRight.push(p);
+                previous = p;
+                previousHasLeft = (bits & 2) != 0;
+            }
+        }
+        catch (EOFException eof) {
+            throw new IOException("Truncated tree stream", eof);
+        }
+        if (previousHasLeft || !awaitingRight.isEmpty())
+            throw new IOException("Corrupt tree stream");
+        return tree;
+    }
+
+    /**
+     * Maps a file written by write as a read-only tree that decodes
+     * elements only when they are asked for
+     * @param file   the file holding the tree
+     * @param codec  the codec converting bytes to elements
+     * @return the mapped tree
+     * @throws IOException if the file cannot be mapped or is not a tree
+     */
+    public static <E> MappedBinaryTree<E> map(Path file, Codec<E> codec)
+                                    throws IOException {
+        return new MappedBinaryTree<>(file, codec);
+    }
+}
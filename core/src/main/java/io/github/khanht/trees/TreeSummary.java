@@ -0,0 +1,33 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+/**
+ * An immutable summary of a tree computed in one pass: its size, its height
+ * and the result of folding a function over its elements.
+ */
+public class TreeSummary<R> {
+    private final long size;
+    private final int height;
+    private final R value;
+
+    public TreeSummary(long size, int height, R value) {
+        this.size = size;
+        this.height = height;
+        this.value = value;
+    }
+
+    // accessor methods
+    /** Returns the number of positions in the tree. */
+    public long getSize() { return size; }
+    /** Returns the height of the tree (-1 if it is empty). */
+    public int getHeight() { return height; }
+    /** Returns the folded value of the elements (null if it is empty). */
+    public R getValue() { return value; }
+
+    public String toString() {
+        return "size=" + size + " height=" + height + " value=" + value;
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of ArrayBinaryTree against LinkedBinaryTree: the same random edits
+ * are made to both, and their structure and traversals must agree.
+ */
+class ArrayBinaryTreeTest {
+
+    /** The same tree in both implementations, with matching positions. */
+    private static final class Twin {
+        final ArrayBinaryTree<Integer> array = new ArrayBinaryTree<>(2);
+        final LinkedBinaryTree<Integer> linked = new LinkedBinaryTree<>();
+        final List<Position<Integer>> arrayNodes = new ArrayList<>();
+        final List<Position<Integer>> linkedNodes = new ArrayList<>();
+
+        void check() {
+            TreeChecks.assertSameTree(linked, array);
+            assertEquals(TreeChecks.elements(linked.preorder()),
+                         TreeChecks.elements(array.preorder()), "preorder");
+            assertEquals(TreeChecks.elements(linked.inorder()),
+                         TreeChecks.elements(array.inorder()), "inorder");
+            assertEquals(TreeChecks.elements(linked.postorder()),
+                         TreeChecks.elements(array.postorder()), "postorder");
+            assertEquals(TreeChecks.elements(linked.breadthfirst()),
+                         TreeChecks.elements(array.breadthfirst()), "breadthfirst");
+            List<Integer> elements = new ArrayList<>();
+            for (Integer e : array)
+                elements.add(e);
+            assertEquals(TreeChecks.elements(linked.preorder()), elements, "iterator");
+        }
+    }
+
+    /** Checks a handle to a node no longer in the tree is rejected. */
+    private static void assertStale(ArrayBinaryTree<Integer> tree,
+                                    Position<Integer> p) {
+        assertThrows(IllegalStateException.class, p::getElement);
+        assertThrows(IllegalArgumentException.class, () -> tree.parent(p));
+        assertThrows(IllegalArgumentException.class, () -> tree.set(p, 0));
+        assertThrows(IllegalArgumentException.class, () -> tree.addLeft(p, 0));
+    }
+
+    @Test
+    void randomEditsMatchLinkedTree() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            Twin t = new Twin();
+            List<Position<Integer>> removed = new ArrayList<>();
+            for (int op = 0; op < 3000; op++) {
+                if (t.arrayNodes.isEmpty()) {
+                    t.arrayNodes.add(t.array.addRoot(op));
+                    t.linkedNodes.add(t.linked.addRoot(op));
+                    continue;
+                }
+                int j = random.nextInt(t.arrayNodes.size());
+                Position<Integer> a = t.arrayNodes.get(j), l = t.linkedNodes.get(j);
+                int choice = random.nextInt(10);
+                if (choice < 5) {
+                    boolean left = random.nextBoolean();
+                    if ((left ? t.array.left(a) : t.array.right(a)) != null) {
+                        assertThrows(IllegalArgumentException.class, () -> {
+                            if (left) t.array.addLeft(a, 0);
+                            else t.array.addRight(a, 0);
+                        });
+                        continue;
+                    }
+                    Position<Integer> added =
+                        left ? t.array.addLeft(a, op) : t.array.addRight(a, op);
+                    for (Position<Integer> stale : removed)
+                        assertNotEquals(stale, added);
+                    t.arrayNodes.add(added);
+                    t.linkedNodes.add(left ? t.linked.addLeft(l, op)
+                                           : t.linked.addRight(l, op));
+                }
+                else if (choice < 8) {
+                    if (t.array.numChildren(a) == 2) {
+                        assertThrows(IllegalArgumentException.class,
+                                     () -> t.array.remove(a));
+                        continue;
+                    }
+                    assertEquals(t.linked.remove(l), t.array.remove(a));
+                    removed.add(a);
+                    t.arrayNodes.set(j, t.arrayNodes.get(t.arrayNodes.size() - 1));
+                    t.arrayNodes.remove(t.arrayNodes.size() - 1);
+                    t.linkedNodes.set(j, t.linkedNodes.get(t.linkedNodes.size() - 1));
+                    t.linkedNodes.remove(t.linkedNodes.size() - 1);
+                }
+                else {
+                    assertEquals(t.linked.set(l, op), t.array.set(a, op));
+                    assertEquals(Integer.valueOf(op), a.getElement());
+                }
+                if (op % 100 == 0) t.check();
+            }
+            t.check();
+            // slots of removed nodes were reused, yet their handles stay stale
+            for (Position<Integer> stale : removed)
+                assertStale(t.array, stale);
+        }
+    }
+
+    @Test
+    void handlesForTheSameNodeAreEqual() {
+        ArrayBinaryTree<Integer> tree = new ArrayBinaryTree<>();
+        Position<Integer> root = tree.addRoot(1);
+        Position<Integer> left = tree.addLeft(root, 2);
+        assertEquals(root, tree.parent(left));
+        assertEquals(root.hashCode(), tree.parent(left).hashCode());
+        assertEquals(left, tree.left(root));
+        assertEquals(Integer.valueOf(1), tree.remove(root));
+        assertEquals(left, tree.root());
+        assertTrue(tree.isRoot(left));
+        assertStale(tree, root);
+    }
+
+    @Test
+    void attachEmptiesSourceTreesAndInvalidatesTheirHandles() {
+        ArrayBinaryTree<Integer> t1 = new ArrayBinaryTree<>(), t2 = new ArrayBinaryTree<>();
+        LinkedBinaryTree<Integer> l1 = new LinkedBinaryTree<>(), l2 = new LinkedBinaryTree<>();
+        List<Position<Integer>> sourceHandles = new ArrayList<>();
+        Position<Integer> r1 = t1.addRoot(10), r2 = t2.addRoot(20);
+        sourceHandles.add(r1);
+        sourceHandles.add(r2);
+        sourceHandles.add(t1.addLeft(r1, 11));
+        sourceHandles.add(t1.addRight(r1, 12));
+        sourceHandles.add(t2.addRight(r2, 21));
+        Position<Integer> m1 = l1.addRoot(10), m2 = l2.addRoot(20);
+        l1.addLeft(m1, 11);
+        l1.addRight(m1, 12);
+        l2.addRight(m2, 21);
+
+        ArrayBinaryTree<Integer> tree = new ArrayBinaryTree<>();
+        LinkedBinaryTree<Integer> linked = new LinkedBinaryTree<>();
+        tree.attach(tree.addRoot(0), t1, t2);
+        linked.attach(linked.addRoot(0), l1, l2);
+        TreeChecks.assertSameTree(linked, tree);
+        assertEquals(TreeChecks.elements(linked.inorder()),
+                     TreeChecks.elements(tree.inorder()));
+        assertTrue(t1.isEmpty());
+        assertTrue(t2.isEmpty());
+        assertStale(t1, sourceHandles.get(0));
+        assertStale(t1, sourceHandles.get(2));
+        assertStale(t2, sourceHandles.get(1));
+        // the emptied trees can be reused, and the old handles stay stale
+        Position<Integer> reused = t1.addRoot(30);
+        assertNotEquals(sourceHandles.get(0), reused);
+        assertStale(t1, sourceHandles.get(0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> tree.attach(tree.root(), t1, t2));
+        assertThrows(IllegalArgumentException.class,
+                     () -> tree.attach(tree.left(tree.root()), tree, t2));
+    }
+
+    @Test
+    void traversalsAreLazyAndFailFast() {
+        ArrayBinaryTree<Integer> tree = new ArrayBinaryTree<>();
+        Position<Integer> p = tree.addRoot(0);
+        for (int i = 1; i < 100000; i++)
+            p = tree.addRight(p, i);
+        Iterator<Position<Integer>> it = tree.inorder().iterator();
+        assertEquals(Integer.valueOf(0), it.next().getElement());
+        tree.addLeft(p, -1);
+        assertThrows(java.util.ConcurrentModificationException.class, it::next);
+        List<Integer> first = new ArrayList<>();
+        for (Iterator<Position<Integer>> post = tree.postorder().iterator();
+             first.size() < 2; )
+            first.add(post.next().getElement());
+        assertEquals(List.of(-1, 99999), first);
+    }
+}
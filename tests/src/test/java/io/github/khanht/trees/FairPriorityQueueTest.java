@@ -0,0 +1,75 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Tests of the service shares of FairPriorityQueue. */
+class FairPriorityQueueTest {
+
+    /** Values are "tenant:n"; the tenant is the part before the colon. */
+    private static FairPriorityQueue<Integer,String> newQueue() {
+        return new FairPriorityQueue<>(v -> v.substring(0, v.indexOf(':')));
+    }
+
+    @Test
+    void backloggedTenantsAreServedInProportionToWeight() {
+        FairPriorityQueue<Integer,String> q = newQueue();
+        q.setWeight("b", 2);
+        q.setWeight("c", 3);
+        for (int i = 0; i < 6000; i++)
+            for (String tenant : new String[] {"a", "b", "c"})
+                q.insert(i, tenant + ":" + i);
+        int[] served = new int[3];
+        for (int i = 0; i < 6000; i++)
+            served[q.removeMin().getValue().charAt(0) - 'a']++;
+        assertEquals(1000, served[0]);
+        assertEquals(2000, served[1]);
+        assertEquals(3000, served[2]);
+    }
+
+    @Test
+    void tenantEmptyingItsHeapAfterEachServiceGetsOnlyItsShare() {
+        FairPriorityQueue<Integer,String> q = newQueue();
+        for (int i = 0; i < 1000; i++)
+            q.insert(i, "deep:" + i);
+        q.insert(0, "shallow:0");
+        int shallow = 0;
+        for (int i = 0; i < 100; i++) {
+            Entry<Integer,String> e = q.removeMin();
+            if (e.getValue().startsWith("shallow")) {
+                shallow++;
+                q.insert(i, "shallow:" + i);    // keeps at most one queued
+            }
+        }
+        assertTrue(shallow >= 49 && shallow <= 51,
+                   "shallow tenant served " + shallow + " of 100");
+    }
+
+    @Test
+    void keysAreInOrderWithinEachTenant() {
+        FairPriorityQueue<Integer,String> q = newQueue();
+        for (int i = 0; i < 100; i++) {
+            q.insert(100 - i, "a:" + i);
+            q.insert(i, "b:" + i);
+        }
+        int lastA = Integer.MIN_VALUE, lastB = Integer.MIN_VALUE;
+        while (!q.isEmpty()) {
+            Entry<Integer,String> e = q.removeMin();
+            if (e.getValue().startsWith("a")) {
+                assertTrue(e.getKey() >= lastA);
+                lastA = e.getKey();
+            }
+            else {
+                assertTrue(e.getKey() >= lastB);
+                lastB = e.getKey();
+            }
+        }
+        assertEquals(0, q.activeTenants());
+    }
+}
@@ -0,0 +1,171 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Property tests of the heap priority queues: random sequences of
+ * operations, drawn from fixed seeds so failures repeat, are checked against
+ * java.util.PriorityQueue, and the structural invariants of the heap are
+ * checked after every operation.
+ */
+class HeapInvariantTest {
+
+    private static final int SEEDS = 20;
+    private static final int OPERATIONS = 2000;
+
+    static Stream<HeapInvariants.Maker> makers() {
+        return Stream.of(
+            new HeapInvariants.Maker("LINKED", LinkedHeapPriorityQueue::new),
+            new HeapInvariants.Maker("LINKED_RECYCLING", () -> {
+                LinkedHeapPriorityQueue<Integer,Integer> q =
+                                            new LinkedHeapPriorityQueue<>();
+                q.setRecycling(true);
+                return q;
+            }),
+            new HeapInvariants.Maker("ARRAY", ArrayHeapPriorityQueue::new),
+            new HeapInvariants.Maker("ARRAY_SORTKEY", () -> {
+                ArrayHeapPriorityQueue<Integer,Integer> q =
+                                            new ArrayHeapPriorityQueue<>();
+                q.setSortKey(key -> key);
+                return q;
+            }),
+            new HeapInvariants.Maker("DARY3", () -> new DaryHeapPriorityQueue<>(3)),
+            new HeapInvariants.Maker("DARY8", () -> new DaryHeapPriorityQueue<>(8)),
+            new HeapInvariants.Maker("ADAPTABLE", HeapAdaptablePriorityQueue::new),
+            new HeapInvariants.Maker("PAIRING", PairingHeapPriorityQueue::new),
+            new HeapInvariants.Maker("MINMAX", MinMaxHeapPriorityQueue::new),
+            new HeapInvariants.Maker("CONCURRENT", ConcurrentPriorityQueue::new));
+    }
+
+    /** Adds a batch through the queue's bulk path, if it has one. */
+    private static void addAll(AbstractPriorityQueue<Integer,Integer> q,
+                               List<Entry<Integer,Integer>> batch) {
+        if (q instanceof LinkedHeapPriorityQueue)
+            ((LinkedHeapPriorityQueue<Integer,Integer>) q).addAll(batch);
+        else if (q instanceof ArrayHeapPriorityQueue)
+            ((ArrayHeapPriorityQueue<Integer,Integer>) q).addAll(batch);
+        else if (q instanceof PairingHeapPriorityQueue)
+            ((PairingHeapPriorityQueue<Integer,Integer>) q).addAll(batch);
+        else
+            for (Entry<Integer,Integer> e : batch)
+                q.insert(e.getKey(), e.getValue());
+    }
+
+    @ParameterizedTest
+    @MethodSource("makers")
+    void randomOperationsMatchReference(HeapInvariants.Maker maker) {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            Random random = new Random(seed);
+            int range = 1 + random.nextInt(seed < SEEDS / 2 ? 10 : 100000);
+            AbstractPriorityQueue<Integer,Integer> q = maker.empty.get();
+            java.util.PriorityQueue<Integer> ref = new java.util.PriorityQueue<>();
+            for (int op = 0; op < OPERATIONS; op++) {
+                int choice = random.nextInt(20);
+                if (choice < 10) {
+                    int key = random.nextInt(range);
+                    q.insert(key, op);
+                    ref.add(key);
+                }
+                else if (choice < 15) {
+                    Entry<Integer,Integer> e = q.removeMin();
+                    Integer expected = ref.poll();
+                    if (expected == null) assertNull(e);
+                    else assertEquals(expected, e.getKey(), "removeMin");
+                }
+                else if (choice < 17) {
+                    Entry<Integer,Integer> e = q.min();
+                    assertEquals(ref.peek(), e == null ? null : e.getKey(), "min");
+                }
+                else if (choice < 19) {
+                    int k = random.nextInt(9);
+                    List<Entry<Integer,Integer>> removed = q.removeMin(k);
+                    assertEquals(Math.min(k, ref.size()),
+                                 removed.size(), "removeMin(k) count");
+                    for (Entry<Integer,Integer> e : removed)
+                        assertEquals(ref.poll(), e.getKey(), "removeMin(k)");
+                }
+                else {
+                    List<Entry<Integer,Integer>> batch = new ArrayList<>();
+                    for (int j = random.nextInt(20); j > 0; j--) {
+                        int key = random.nextInt(range);
+                        batch.add(new AbstractPriorityQueue.PQEntry<>(key, op));
+                        ref.add(key);
+                    }
+                    addAll(q, batch);
+                }
+                assertEquals(ref.size(), q.size(), "size");
+                HeapInvariants.check(q);
+            }
+            while (!ref.isEmpty())
+                assertEquals(ref.poll(), q.removeMin().getKey(), "drain");
+            assertTrue(q.isEmpty());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("makers")
+    void drainToInLargeBatchesMatchesReference(HeapInvariants.Maker maker) {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            Random random = new Random(seed);
+            AbstractPriorityQueue<Integer,Integer> q = maker.empty.get();
+            java.util.PriorityQueue<Integer> ref = new java.util.PriorityQueue<>();
+            for (int i = 0; i < 5000; i++) {
+                int key = random.nextInt(seed < SEEDS / 2 ? 50 : 1000000);
+                q.insert(key, i);
+                ref.add(key);
+            }
+            while (!ref.isEmpty()) {
+                List<Entry<Integer,Integer>> batch = new ArrayList<>();
+                int max = 64 + random.nextInt(961);
+                assertEquals(Math.min(max, ref.size()), q.drainTo(batch, max));
+                for (Entry<Integer,Integer> e : batch)
+                    assertEquals(ref.poll(), e.getKey(), "drainTo");
+                assertEquals(ref.size(), q.size(), "size");
+                HeapInvariants.check(q);
+                for (int i = random.nextInt(100); i > 0; i--) {
+                    int key = random.nextInt(1000000);
+                    q.insert(key, i);
+                    ref.add(key);
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("makers")
+    void stableQueuesServeEqualKeysInInsertionOrder(HeapInvariants.Maker maker) {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            Random random = new Random(seed);
+            AbstractPriorityQueue<Integer,Integer> q = maker.empty.get();
+            q.setStable(true);
+            Map<Integer,Integer> lastServed = new HashMap<>();
+            for (int op = 0; op < OPERATIONS; op++) {
+                if (random.nextInt(3) > 0)
+                    q.insert(random.nextInt(5), op);
+                else if (!q.isEmpty()) {
+                    Entry<Integer,Integer> e = q.removeMin();
+                    Integer last = lastServed.put(e.getKey(), e.getValue());
+                    assertTrue(last == null || last < e.getValue(),
+                               "key " + e.getKey() + " served out of order");
+                }
+                HeapInvariants.check(q);
+            }
+        }
+    }
+}
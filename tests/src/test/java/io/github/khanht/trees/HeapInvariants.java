@@ -0,0 +1,105 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.function.Supplier;
+
+/**
+ * Checks of the structural invariants of the heaps, reaching into their
+ * protected state from the same package. Each check throws AssertionError
+ * naming the first violation it finds.
+ */
+final class HeapInvariants {
+
+    private HeapInvariants() {}
+
+    /** A named way of creating an empty queue, for parameterized tests. */
+    static final class Maker {
+        final String name;
+        final Supplier<AbstractPriorityQueue<Integer,Integer>> empty;
+        Maker(String name, Supplier<AbstractPriorityQueue<Integer,Integer>> empty) {
+            this.name = name;
+            this.empty = empty;
+        }
+        public String toString() { return name; }
+    }
+
+    /** Checks whichever invariants apply to the kind of the queue. */
+    static void check(AbstractPriorityQueue<Integer,Integer> q) {
+        if (q instanceof MinMaxHeapPriorityQueue)
+            checkMinMax((MinMaxHeapPriorityQueue<Integer,Integer>) q);
+        else if (q instanceof ArrayHeapPriorityQueue)
+            checkArray((ArrayHeapPriorityQueue<Integer,Integer>) q);
+        else if (q instanceof LinkedHeapPriorityQueue)
+            checkLinked((LinkedHeapPriorityQueue<Integer,Integer>) q);
+    }
+
+    /** No entry of an array heap is less than its parent. */
+    static void checkArray(ArrayHeapPriorityQueue<Integer,Integer> q) {
+        for (int j = 1; j < q.size(); j++)
+            if (q.compare(q.heap[q.parent(j)], q.heap[j]) > 0)
+                throw new AssertionError("heap order broken at index " + j);
+        if (q instanceof HeapAdaptablePriorityQueue)
+            for (int j = 0; j < q.size(); j++) {
+                int index = ((HeapAdaptablePriorityQueue.AdaptablePQEntry<Integer,Integer>)
+                             q.heap[j]).getIndex();
+                if (index != j)
+                    throw new AssertionError("entry at " + j + " thinks it is at " + index);
+            }
+    }
+
+    /**
+     * Each entry on a min level is no greater, and each entry on a max level
+     * no less, than its children and grandchildren.
+     */
+    static void checkMinMax(MinMaxHeapPriorityQueue<Integer,Integer> q) {
+        for (int j = 0; j < q.size(); j++) {
+            boolean min = ((31 - Integer.numberOfLeadingZeros(j + 1)) & 1) == 0;
+            for (int c = q.left(j); c <= q.right(j) && c < q.size(); c++) {
+                checkLevel(q, j, c, min);
+                for (int g = q.left(c); g <= q.right(c) && g < q.size(); g++)
+                    checkLevel(q, j, g, min);
+            }
+        }
+    }
+
+    private static void checkLevel(MinMaxHeapPriorityQueue<Integer,Integer> q,
+                                   int j, int d, boolean min) {
+        int c = q.compare(q.heap[j], q.heap[d]);
+        if (min ? c > 0 : c < 0)
+            throw new AssertionError("min-max order broken between " + j + " and " + d);
+    }
+
+    /**
+     * No entry of a linked heap is less than its parent, every child links
+     * back to its parent, and the nodes number the size.
+     */
+    static void checkLinked(LinkedHeapPriorityQueue<Integer,Integer> q) {
+        if (q.root != null && q.root.getParent() != null)
+            throw new AssertionError("root has a parent");
+        int count = checkSubtree(q, q.root);
+        if (count != q.size())
+            throw new AssertionError(count + " nodes in a heap of size " + q.size());
+    }
+
+    private static int checkSubtree(LinkedHeapPriorityQueue<Integer,Integer> q,
+                    LinkedHeapPriorityQueue.Node<Entry<Integer,Integer>> node) {
+        if (node == null) return 0;
+        return 1 + checkChild(q, node, node.getLeft())
+                 + checkChild(q, node, node.getRight());
+    }
+
+    private static int checkChild(LinkedHeapPriorityQueue<Integer,Integer> q,
+                    LinkedHeapPriorityQueue.Node<Entry<Integer,Integer>> node,
+                    LinkedHeapPriorityQueue.Node<Entry<Integer,Integer>> child) {
+        if (child == null) return 0;
+        if (child.getParent() != node)
+            throw new AssertionError("child does not link back to its parent");
+        if (q.compare(node.getElement(), child.getElement()) > 0)
+            throw new AssertionError("heap order broken below key "
+                                     + node.getElement().getKey());
+        return checkSubtree(q, child);
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Tests of the recycling mode of LinkedHeapPriorityQueue. */
+class LinkedHeapRecyclingTest {
+
+    private static LinkedHeapPriorityQueue<Integer,String> recyclingHeap() {
+        LinkedHeapPriorityQueue<Integer,String> q = new LinkedHeapPriorityQueue<>();
+        q.setRecycling(true);
+        return q;
+    }
+
+    @Test
+    void addAllOfDrainedEntriesKeepsEveryPair() {
+        LinkedHeapPriorityQueue<Integer,String> q = recyclingHeap();
+        for (int i = 0; i < 5; i++)
+            q.insert(i, "v" + i);
+        q.addAll(q.removeMin(5));
+        for (int i = 0; i < 5; i++) {
+            Entry<Integer,String> e = q.removeMin();
+            assertEquals(i, e.getKey());
+            assertEquals("v" + i, e.getValue());
+        }
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    void removedEntriesAreClearedByTheNextInsert() {
+        LinkedHeapPriorityQueue<Integer,String> q = recyclingHeap();
+        for (int i = 0; i < 3; i++)
+            q.insert(i, "v" + i);
+        List<Entry<Integer,String>> removed = q.removeMin(3);
+        assertEquals("v0", removed.get(0).getValue());    // valid until insert
+        q.insert(7, "new");
+        int reused = 0;
+        for (Entry<Integer,String> e : removed)
+            if (e.getValue() == null)
+                assertNull(e.getKey());
+            else {
+                assertEquals("new", e.getValue());
+                reused++;
+            }
+        assertEquals(1, reused);
+    }
+
+    @Test
+    void atMost64EntriesAreKept() {
+        LinkedHeapPriorityQueue<Integer,String> q = recyclingHeap();
+        for (int i = 0; i < 1000; i++)
+            q.insert(i, "v" + i);
+        List<Entry<Integer,String>> removed = new ArrayList<>(q.removeMin(1000));
+        q.insert(0, "new");
+        int cleared = 0;
+        for (Entry<Integer,String> e : removed)
+            if (e.getValue() == null)
+                cleared++;
+        assertEquals(63, cleared);      // 64 kept, one of them reused
+    }
+}
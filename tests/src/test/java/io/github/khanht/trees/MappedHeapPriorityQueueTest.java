@@ -0,0 +1,171 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of MappedHeapPriorityQueue across closing and reopening its file,
+ * including reopening after a crash part way through an operation.
+ */
+class MappedHeapPriorityQueueTest {
+
+    private static final int VALUE_BYTES = 16;
+
+    // the file layout, as MappedHeapPriorityQueue writes it
+    private static final int SIZE_AT = 12;
+    private static final int LOG_STATE_AT = 16;
+    private static final int LOG_COUNT_AT = 20;
+    private static final int HEADER_BYTES = 64;
+    private static final int COMMITTED = 1;
+    private static final int SLOT_BYTES = (12 + VALUE_BYTES + 7) & ~7;
+    private static final int DATA_START =
+                            (HEADER_BYTES + 32 * (8 + SLOT_BYTES) + 7) & ~7;
+
+    @TempDir
+    Path dir;
+
+    private static MappedHeapPriorityQueue<String> open(Path file)
+                                                        throws IOException {
+        return new MappedHeapPriorityQueue<>(file, Codec.STRING, VALUE_BYTES);
+    }
+
+    /** Inserts n random keys, every tenth with a null value. */
+    private static void fill(MappedHeapPriorityQueue<String> q, int n,
+                             Random random) {
+        for (int i = 0; i < n; i++) {
+            long key = random.nextInt(1000);
+            q.insert(key, i % 10 == 0 ? null : "v" + i);
+        }
+    }
+
+    /** Empties the queue in the file, returning "key=value" per entry. */
+    private static List<String> drain(Path file) throws IOException {
+        List<String> out = new ArrayList<>();
+        try (MappedHeapPriorityQueue<String> q = open(file)) {
+            long last = Long.MIN_VALUE;
+            while (!q.isEmpty()) {
+                Entry<Long,String> e = q.removeMin();
+                assertTrue(e.getKey() >= last, "keys out of order");
+                last = e.getKey();
+                out.add(e.getKey() + "=" + e.getValue());
+            }
+        }
+        return out;
+    }
+
+    @Test
+    void entriesSurviveClosingAndReopening() throws IOException {
+        Path file = dir.resolve("heap");
+        List<Long> keys = new ArrayList<>();
+        try (MappedHeapPriorityQueue<String> q = open(file)) {
+            fill(q, 500, new Random(1));
+            for (Entry<Long,String> e : q)
+                keys.add(e.getKey());
+        }
+        keys.sort(null);
+        List<String> drained = drain(file);
+        assertEquals(keys.size(), drained.size());
+        for (int i = 0; i < keys.size(); i++)
+            assertEquals(keys.get(i), Long.valueOf(drained.get(i).split("=")[0]));
+        try (MappedHeapPriorityQueue<String> q = open(file)) {
+            assertEquals(0, q.size());
+        }
+    }
+
+    @Test
+    void grownFileReopensAndGrowsAgain() throws IOException {
+        Path file = dir.resolve("heap");
+        Random random = new Random(2);
+        try (MappedHeapPriorityQueue<String> q = open(file)) {
+            fill(q, 3000, random);
+        }
+        long length = Files.size(file);
+        try (MappedHeapPriorityQueue<String> q = open(file)) {
+            assertEquals(3000, q.size());
+            fill(q, 3000, random);
+        }
+        assertTrue(Files.size(file) > length, "file did not grow");
+        assertEquals(6000, drain(file).size());
+    }
+
+    @Test
+    void fileWithOtherValueSizeIsRejected() throws IOException {
+        Path file = dir.resolve("heap");
+        open(file).close();
+        assertThrows(IOException.class,
+                     () -> new MappedHeapPriorityQueue<>(file, Codec.STRING,
+                                                         VALUE_BYTES + 8));
+    }
+
+    /**
+     * Writes the file as it would be if the process died after committing
+     * the log of the operation that turned before into after, but before
+     * applying it: the heap of before with the log of after, committed.
+     */
+    private Path crashed(Path before, Path after, boolean corrupt)
+                                                        throws IOException {
+        byte[] bytes = Files.readAllBytes(before);
+        byte[] log = Files.readAllBytes(after);
+        System.arraycopy(log, LOG_COUNT_AT, bytes, LOG_COUNT_AT,
+                         DATA_START - LOG_COUNT_AT);
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        assertNotEquals(0, header.getInt(LOG_COUNT_AT), "nothing logged");
+        header.putInt(LOG_STATE_AT, COMMITTED);
+        if (corrupt)
+            bytes[HEADER_BYTES + 8] ^= 1;
+        Path file = dir.resolve(corrupt ? "corrupt" : "crashed");
+        Files.write(file, bytes);
+        return file;
+    }
+
+    /** Returns the files before and after one removeMin of a full heap. */
+    private Path[] beforeAndAfterRemoveMin() throws IOException {
+        Path before = dir.resolve("before");
+        try (MappedHeapPriorityQueue<String> q = open(before)) {
+            fill(q, 200, new Random(3));
+        }
+        Path after = dir.resolve("after");
+        Files.copy(before, after);
+        try (MappedHeapPriorityQueue<String> q = open(after)) {
+            q.removeMin();
+        }
+        return new Path[] {before, after};
+    }
+
+    @Test
+    void committedLogIsReplayedOnReopening() throws IOException {
+        Path[] files = beforeAndAfterRemoveMin();
+        Path crashed = crashed(files[0], files[1], false);
+        assertEquals(200, ByteBuffer.wrap(Files.readAllBytes(crashed))
+                                    .getInt(SIZE_AT));
+        List<String> expected = drain(files[1]);
+        assertEquals(199, expected.size());
+        assertEquals(expected, drain(crashed));
+    }
+
+    @Test
+    void logFailingItsChecksumIsDiscarded() throws IOException {
+        Path[] files = beforeAndAfterRemoveMin();
+        Path corrupt = crashed(files[0], files[1], true);
+        List<String> expected = drain(files[0]);
+        assertEquals(200, expected.size());
+        assertEquals(expected, drain(corrupt));
+    }
+}
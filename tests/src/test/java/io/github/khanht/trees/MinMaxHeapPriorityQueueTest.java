@@ -0,0 +1,160 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the max side and the bounded mode of MinMaxHeapPriorityQueue,
+ * against a sorted multiset of keys.
+ */
+class MinMaxHeapPriorityQueueTest {
+
+    private static final int SEEDS = 20;
+    private static final int OPERATIONS = 2000;
+
+    /** A multiset of keys, counting the copies of each. */
+    private static final class Keys {
+        final TreeMap<Integer,Integer> counts = new TreeMap<>();
+        int size = 0;
+        void add(int key) { counts.merge(key, 1, Integer::sum); size++; }
+        void remove(int key) {
+            if (counts.merge(key, -1, Integer::sum) == 0) counts.remove(key);
+            size--;
+        }
+        Integer min() { return size == 0 ? null : counts.firstKey(); }
+        Integer max() { return size == 0 ? null : counts.lastKey(); }
+        List<Integer> sorted() {
+            List<Integer> out = new ArrayList<>();
+            counts.forEach((k, n) -> out.addAll(Collections.nCopies(n, k)));
+            return out;
+        }
+    }
+
+    private static MinMaxHeapPriorityQueue<Integer,Integer> newHeap(int capacity) {
+        return capacity < 0 ? new MinMaxHeapPriorityQueue<>()
+                            : new MinMaxHeapPriorityQueue<>(capacity);
+    }
+
+    private static Integer keyOf(Entry<Integer,Integer> e) {
+        return e == null ? null : e.getKey();
+    }
+
+    /** Checks the heap holds exactly the reference keys, also in order. */
+    private static void checkContents(MinMaxHeapPriorityQueue<Integer,Integer> q,
+                                      Keys ref) {
+        List<Integer> held = new ArrayList<>();
+        for (Entry<Integer,Integer> e : q)
+            held.add(e.getKey());
+        Collections.sort(held);
+        List<Integer> expected = ref.sorted();
+        assertEquals(expected, held, "kept keys");
+        List<Integer> ordered = new ArrayList<>();
+        for (Iterator<Entry<Integer,Integer>> it = q.orderedIterator(); it.hasNext(); )
+            ordered.add(it.next().getKey());
+        assertEquals(expected, ordered, "orderedIterator");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 1, 2, 3, 7, 64})
+    void randomOperationsMatchReference(int capacity) {
+        for (int seed = 0; seed < SEEDS; seed++) {
+            Random random = new Random(seed);
+            int range = 1 + random.nextInt(seed < SEEDS / 2 ? 10 : 100000);
+            MinMaxHeapPriorityQueue<Integer,Integer> q = newHeap(capacity);
+            Keys ref = new Keys();
+            for (int op = 0; op < OPERATIONS; op++) {
+                int choice = random.nextInt(20);
+                if (choice < 10) {
+                    int key = random.nextInt(range);
+                    Entry<Integer,Integer> e = q.insert(key, op);
+                    if (ref.size == capacity && key >= ref.max())
+                        assertNull(e, "key not less than max kept");
+                    else {
+                        assertNotNull(e, "key rejected");
+                        if (ref.size == capacity)
+                            ref.remove(ref.max());
+                        ref.add(key);
+                    }
+                }
+                else if (choice < 13) {
+                    Integer expected = ref.min();
+                    assertEquals(expected, keyOf(q.removeMin()), "removeMin");
+                    if (expected != null) ref.remove(expected);
+                }
+                else if (choice < 16) {
+                    Integer expected = ref.max();
+                    assertEquals(expected, keyOf(q.removeMax()), "removeMax");
+                    if (expected != null) ref.remove(expected);
+                }
+                else if (choice < 18) {
+                    assertEquals(ref.min(), keyOf(q.min()), "min");
+                    assertEquals(ref.max(), keyOf(q.max()), "max");
+                }
+                else
+                    checkContents(q, ref);
+                assertEquals(ref.size, q.size(), "size");
+                HeapInvariants.checkMinMax(q);
+            }
+            checkContents(q, ref);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 100})
+    void boundedHeapKeepsSmallestKeysOfStream(int capacity) {
+        Random random = new Random(capacity);
+        MinMaxHeapPriorityQueue<Integer,Integer> q = newHeap(capacity);
+        List<Entry<Integer,Integer>> batch = new ArrayList<>();
+        List<Integer> all = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            int key = random.nextInt(1000);
+            all.add(key);
+            if (i % 2 == 0)
+                q.insert(key, i);
+            else
+                batch.add(new AbstractPriorityQueue.PQEntry<>(key, i));
+            if (batch.size() == 50) {
+                q.addAll(batch);
+                batch.clear();
+            }
+        }
+        Collections.sort(all);
+        Keys ref = new Keys();
+        for (int key : all.subList(0, capacity))
+            ref.add(key);
+        assertEquals(capacity, q.size());
+        assertTrue(q.isFull());
+        checkContents(q, ref);
+    }
+
+    @Test
+    void fullHeapEvictsOnlyForSmallerKeys() {
+        MinMaxHeapPriorityQueue<Integer,Integer> q = newHeap(2);
+        q.insert(1, 1);
+        q.insert(2, 2);
+        assertNull(q.insert(2, 3));
+        assertEquals(2, keyOf(q.max()));
+        assertEquals(1, keyOf(q.insert(1, 4)));
+        assertEquals(1, keyOf(q.max()));
+        assertEquals(2, q.size());
+        assertThrows(IllegalStateException.class, () -> q.ensureCapacity(3));
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.function.ToLongFunction;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Tests of PairingHeapPriorityQueue.meld. */
+class PairingHeapMeldTest {
+
+    @Test
+    void meldMovesEveryEntryInOrder() {
+        PairingHeapPriorityQueue<Integer,String> a = new PairingHeapPriorityQueue<>();
+        PairingHeapPriorityQueue<Integer,String> b = new PairingHeapPriorityQueue<>();
+        for (int i = 0; i < 100; i++)
+            (i % 2 == 0 ? a : b).insert(99 - i, "v" + i);
+        a.meld(b);
+        assertTrue(b.isEmpty());
+        assertEquals(100, a.size());
+        for (int key = 0; key < 100; key++)
+            assertEquals(key, a.removeMin().getKey());
+    }
+
+    @Test
+    void stableMeldKeepsLaterInsertsAfterMeldedEntries() {
+        PairingHeapPriorityQueue<Integer,String> a = new PairingHeapPriorityQueue<>();
+        PairingHeapPriorityQueue<Integer,String> b = new PairingHeapPriorityQueue<>();
+        a.setStable(true);
+        b.setStable(true);
+        a.insert(1, "a0");
+        for (int i = 0; i < 10; i++)
+            b.insert(1, "b" + i);
+        a.meld(b);
+        for (int i = 0; i < 5; i++)
+            a.insert(1, "later" + i);
+        for (int i = 0; i < 11; i++)
+            assertFalse(a.removeMin().getValue().startsWith("later"),
+                       "later insert served before a melded entry");
+        for (int i = 0; i < 5; i++)
+            assertEquals("later" + i, a.removeMin().getValue());
+    }
+
+    @Test
+    void meldRejectsHeapsWithDifferentSettings() {
+        PairingHeapPriorityQueue<Integer,String> stable = new PairingHeapPriorityQueue<>();
+        stable.setStable(true);
+        assertThrows(IllegalArgumentException.class,
+                     () -> stable.meld(new PairingHeapPriorityQueue<>()));
+
+        ToLongFunction<Integer> sortKey = key -> key;
+        PairingHeapPriorityQueue<Integer,String> a = new PairingHeapPriorityQueue<>();
+        PairingHeapPriorityQueue<Integer,String> b = new PairingHeapPriorityQueue<>();
+        a.setSortKey(sortKey);
+        assertThrows(IllegalArgumentException.class, () -> a.meld(b));
+        b.setSortKey(sortKey);
+        a.meld(b);
+    }
+}
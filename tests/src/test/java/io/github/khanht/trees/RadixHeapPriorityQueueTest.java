@@ -0,0 +1,77 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** Tests of RadixHeapPriorityQueue against java.util.PriorityQueue. */
+class RadixHeapPriorityQueueTest {
+
+    @Test
+    void keyEqualToLastRemovedAfterMinIsServed() {
+        RadixHeapPriorityQueue<String> q = new RadixHeapPriorityQueue<>();
+        q.insert(5L, "a");
+        q.insert(10L, "b");
+        q.insert(20L, "c");
+        assertEquals(5L, q.removeMin().getKey());
+        assertEquals(10L, q.min().getKey());
+        q.insert(5L, "d");
+        assertEquals(5L, q.removeMin().getKey());
+        assertEquals(10L, q.removeMin().getKey());
+        assertEquals(20L, q.removeMin().getKey());
+        assertNull(q.removeMin());
+        assertTrue(q.isEmpty());
+    }
+
+    @Test
+    void monotoneOperationsMatchReference() {
+        for (int seed = 0; seed < 2000; seed++) {
+            Random random = new Random(seed);
+            int spread = 1 << random.nextInt(20);
+            RadixHeapPriorityQueue<Integer> q = new RadixHeapPriorityQueue<>();
+            java.util.PriorityQueue<Long> ref = new java.util.PriorityQueue<>();
+            for (int op = 0; op < 200; op++) {
+                int choice = random.nextInt(10);
+                if (choice < 4) {
+                    long key = q.lastRemovedKey() == Long.MIN_VALUE ? 0
+                                                      : q.lastRemovedKey();
+                    if (choice > 0) key += random.nextInt(spread);
+                    q.insert(key, op);
+                    ref.add(key);
+                }
+                else if (choice < 6) {
+                    Entry<Long,Integer> e = q.min();
+                    assertEquals(ref.peek(), e == null ? null : e.getKey(),
+                                 "min, seed " + seed);
+                }
+                else {
+                    Entry<Long,Integer> e = q.removeMin();
+                    assertEquals(ref.poll(), e == null ? null : e.getKey(),
+                                 "removeMin, seed " + seed);
+                }
+                assertEquals(ref.size(), q.size());
+            }
+            while (!ref.isEmpty())
+                assertEquals(ref.poll(), q.removeMin().getKey());
+            assertTrue(q.isEmpty());
+        }
+    }
+
+    @Test
+    void keyLessThanLastRemovedIsRejected() {
+        RadixHeapPriorityQueue<String> q = new RadixHeapPriorityQueue<>();
+        q.insert(10L, "a");
+        q.removeMin();
+        assertEquals(10L, q.lastRemovedKey());
+        assertThrows(IllegalArgumentException.class, () -> q.insert(9L, "b"));
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/** Tests of the queues that cannot be stable. */
+class StabilityTest {
+
+    @Test
+    void radixHeapAcceptsOnlyUnstable() {
+        RadixHeapPriorityQueue<String> q = new RadixHeapPriorityQueue<>();
+        q.setStable(false);
+        assertFalse(q.isStable());
+        assertThrows(UnsupportedOperationException.class, () -> q.setStable(true));
+    }
+
+    @Test
+    void mappedHeapAcceptsOnlyUnstable(@TempDir Path dir) throws IOException {
+        try (MappedHeapPriorityQueue<String> q = new MappedHeapPriorityQueue<>(
+                                    dir.resolve("heap"), Codec.STRING, 16)) {
+            q.setStable(false);
+            assertFalse(q.isStable());
+            assertThrows(UnsupportedOperationException.class,
+                         () -> q.setStable(true));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/** Comparisons of binary trees of different implementations. */
+final class TreeChecks {
+
+    private TreeChecks() {}
+
+    /** Checks two trees have the same shape and elements. */
+    static <E> void assertSameTree(BinaryTree<E> expected, BinaryTree<E> actual) {
+        assertEquals(expected.size(), actual.size(), "size");
+        if (expected.root() == null) {
+            assertNull(actual.root());
+            return;
+        }
+        ArrayDeque<Position<E>> a = new ArrayDeque<>();
+        ArrayDeque<Position<E>> b = new ArrayDeque<>();
+        a.push(expected.root());
+        b.push(actual.root());
+        while (!a.isEmpty()) {
+            Position<E> p = a.pop(), q = b.pop();
+            assertEquals(p.getElement(), q.getElement());
+            assertEquals(expected.numChildren(p), actual.numChildren(q));
+            for (boolean left : new boolean[] {true, false}) {
+                Position<E> pc = left ? expected.left(p) : expected.right(p);
+                Position<E> qc = left ? actual.left(q) : actual.right(q);
+                assertEquals(pc == null, qc == null, "shape");
+                if (pc != null) {
+                    a.push(pc);
+                    b.push(qc);
+                }
+            }
+        }
+    }
+
+    /** Returns the elements of positions in the order given. */
+    static <E> List<E> elements(Iterable<Position<E>> positions) {
+        List<E> out = new ArrayList<>();
+        for (Position<E> p : positions)
+            out.add(p.getElement());
+        return out;
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.khanht.trees;
+
+/**
+ *
+ * @author Khanh Tran
+ */
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trips of random trees through TreeSerializer.write, read and map,
+ * and rejection of damaged files.
+ */
+class TreeSerializerTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Builds a tree of n nodes of random shape. Some elements are null and
+     * some are longer than the reader's initial buffer.
+     */
+    static LinkedBinaryTree<String> randomTree(int n, Random random) {
+        LinkedBinaryTree<String> tree = new LinkedBinaryTree<>();
+        if (n == 0) return tree;
+        List<Position<String>> open = new ArrayList<>();
+        open.add(tree.addRoot(element(0, random)));
+        for (int i = 1; i < n; i++) {
+            int j = random.nextInt(open.size());
+            Position<String> p = open.get(j);
+            boolean left = tree.left(p) == null
+                           && (tree.right(p) != null || random.nextBoolean());
+            open.add(left ? tree.addLeft(p, element(i, random))
+                          : tree.addRight(p, element(i, random)));
+            if (tree.numChildren(p) == 2) {
+                open.set(j, open.get(open.size() - 1));
+                open.remove(open.size() - 1);
+            }
+        }
+        return tree;
+    }
+
+    private static String element(int i, Random random) {
+        int kind = random.nextInt(10);
+        if (kind == 0) return null;
+        if (kind == 1) {
+            char[] chars = new char[257 + random.nextInt(2000)];
+            Arrays.fill(chars, (char) ('a' + i % 26));
+            chars[0] = 'é';            // two bytes in UTF-8
+            return new String(chars);
+        }
+        return "node" + i;
+    }
+
+    private static byte[] write(BinaryTree<String> tree) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TreeSerializer.write(tree, Codec.STRING, out);
+        return out.toByteArray();
+    }
+
+    private static LinkedBinaryTree<String> read(byte[] bytes) throws IOException {
+        return TreeSerializer.read(new ByteArrayInputStream(bytes), Codec.STRING);
+    }
+
+    private MappedBinaryTree<String> map(byte[] bytes) throws IOException {
+        Path file = Files.createTempFile(dir, "tree", ".bin");
+        Files.write(file, bytes);
+        return TreeSerializer.map(file, Codec.STRING);
+    }
+
+    @Test
+    void randomTreesSurviveWriteReadAndMap() throws IOException {
+        for (int seed = 0; seed < 50; seed++) {
+            Random random = new Random(seed);
+            LinkedBinaryTree<String> tree = randomTree(1 + random.nextInt(500), random);
+            byte[] bytes = write(tree);
+            TreeChecks.assertSameTree(tree, read(bytes));
+            MappedBinaryTree<String> mapped = map(bytes);
+            TreeChecks.assertSameTree(tree, mapped);
+            // the mapped view lists the file in preorder
+            Iterator<String> elements = mapped.iterator();
+            for (Position<String> p : tree.preorder())
+                assertEquals(p.getElement(), elements.next());
+            assertTrue(!elements.hasNext());
+        }
+    }
+
+    @Test
+    void mappedParentsAndSiblingsMatch() throws IOException {
+        LinkedBinaryTree<String> tree = randomTree(2000, new Random(7));
+        MappedBinaryTree<String> mapped = map(write(tree));
+        Position<String> root = mapped.root();
+        assertTrue(mapped.isRoot(root));
+        assertNull(mapped.parent(root));
+        assertNull(mapped.sibling(root));
+        for (Position<String> p : mapped.positions()) {
+            Position<String> left = mapped.left(p), right = mapped.right(p);
+            for (Position<String> c : new ArrayList<>(Arrays.asList(left, right))) {
+                if (c == null) continue;
+                assertEquals(p, mapped.parent(c));
+                assertTrue(!mapped.isRoot(c));
+            }
+            if (left != null) assertEquals(right, mapped.sibling(left));
+            if (right != null) assertEquals(left, mapped.sibling(right));
+        }
+    }
+
+    @Test
+    void emptyTreeSurvivesWriteReadAndMap() throws IOException {
+        byte[] bytes = write(new LinkedBinaryTree<>());
+        assertEquals(0, read(bytes).size());
+        MappedBinaryTree<String> mapped = map(bytes);
+        assertEquals(0, mapped.size());
+        assertNull(mapped.root());
+        assertTrue(!mapped.iterator().hasNext());
+    }
+
+    @Test
+    void truncatedFilesAreRejected() throws IOException {
+        byte[] bytes = write(randomTree(40, new Random(3)));
+        // read stops at the end of the payload, where the index starts
+        ByteBuffer trailer = ByteBuffer.wrap(bytes, bytes.length - 20, 20).slice();
+        int indexStart = (int) trailer.getLong(8);
+        for (int cut = 0; cut < bytes.length; cut++) {
+            byte[] part = Arrays.copyOf(bytes, cut);
+            if (cut < indexStart)
+                assertThrows(IOException.class, () -> read(part), "cut " + cut);
+            // map checks only the header and trailer, so sample the middle
+            if (cut < 64 || cut > bytes.length - 64 || cut % 61 == 0)
+                assertThrows(IOException.class, () -> map(part), "cut " + cut);
+        }
+    }
+
+    @Test
+    void corruptFilesAreRejected() throws IOException {
+        byte[] bytes = write(randomTree(40, new Random(4)));
+        int shapeBytes = (int) TreeSerializer.shapeBytes(40);
+        List<byte[]> damaged = new ArrayList<>();
+        for (int at : new int[] {0, 7, 11}) {       // magic, version, size
+            byte[] b = bytes.clone();
+            b[at] ^= 0x40;
+            damaged.add(b);
+        }
+        byte[] negative = bytes.clone();
+        ByteBuffer.wrap(negative).putInt(8, -1);
+        damaged.add(negative);
+        for (byte[] b : damaged) {
+            assertThrows(IOException.class, () -> read(b));
+            assertThrows(IOException.class, () -> map(b));
+        }
+        // only map reads the trailer
+        byte[] magic = bytes.clone();
+        magic[magic.length - 1] ^= 0x40;
+        assertThrows(IOException.class, () -> map(magic));
+        // every single flipped shape bit leaves the node count inconsistent
+        for (int bit = 0; bit < 8 * shapeBytes && bit < 2 * 40; bit++) {
+            byte[] b = bytes.clone();
+            b[12 + bit / 8] ^= 1 << (bit % 8);
+            assertThrows(IOException.class, () -> read(b), "shape bit " + bit);
+        }
+        byte[] length = bytes.clone();
+        ByteBuffer.wrap(length).putInt(12 + shapeBytes, -2);
+        assertThrows(IOException.class, () -> read(length));
+        byte[] offsets = bytes.clone();
+        ByteBuffer.wrap(offsets).putLong(offsets.length - 20, 11);
+        assertThrows(IOException.class, () -> map(offsets));
+    }
+}